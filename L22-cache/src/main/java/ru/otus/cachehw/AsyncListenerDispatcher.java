@@ -0,0 +1,219 @@
+package ru.otus.cachehw;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронная доставка событий кеша.
+ * <p>
+ * У каждого слушателя свой кольцевой буфер ключей и своя очередь доставки на общем executor-е,
+ * поэтому медленный слушатель не задерживает ни операции кеша, ни других слушателей:
+ * за один заход доставляется не больше batchSize событий, затем канал встает в очередь executor-а заново.
+ * Пока событие по ключу ждет доставки, новые события по этому ключу его замещают (coalescing),
+ * а при заполненном буфере событие отбрасывается и учитывается в счетчике dropped.
+ * Поток кеша никогда не ждет: он только кладет событие в буфер и, если нужно, планирует доставку.
+ */
+public class AsyncListenerDispatcher<K, V> implements ListenerDispatcher<K, V>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncListenerDispatcher.class);
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final Map<HwListener<K, V>, ListenerChannel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final int bufferSize;
+    private final int batchSize;
+    private volatile boolean closing;
+
+    public AsyncListenerDispatcher() {
+        this(Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "cache-listener-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        }), true, DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    public AsyncListenerDispatcher(ExecutorService executor, int bufferSize, int batchSize) {
+        this(executor, false, bufferSize, batchSize);
+    }
+
+    private AsyncListenerDispatcher(ExecutorService executor, boolean ownExecutor, int bufferSize, int batchSize) {
+        if (bufferSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("bufferSize and batchSize must be positive");
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.ownExecutor = ownExecutor;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void addListener(HwListener<K, V> listener) {
+        channels.computeIfAbsent(listener, ListenerChannel::new);
+    }
+
+    @Override
+    public void removeListener(HwListener<K, V> listener) {
+        channels.remove(listener);
+    }
+
+    @Override
+    public void dispatch(K key, V value, String action) {
+        var event = new CacheEvent<>(key, value, action);
+        for (var channel : channels.values()) {
+            channel.publish(event);
+        }
+    }
+
+    public long droppedCount(HwListener<K, V> listener) {
+        var channel = channels.get(listener);
+        return channel == null ? 0 : channel.dropped.sum();
+    }
+
+    public long droppedCount() {
+        return channels.values().stream().mapToLong(channel -> channel.dropped.sum()).sum();
+    }
+
+    public long coalescedCount() {
+        return channels.values().stream().mapToLong(channel -> channel.coalesced.sum()).sum();
+    }
+
+    /**
+     * Доставляет все накопленные события и останавливает собственный executor.
+     * С этого момента каждый канал разбирается до конца за один заход, а события,
+     * пришедшие уже после остановки executor-а, доставляются в вызывающем потоке.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        channels.values().forEach(ListenerChannel::scheduleIfNotEmpty);
+        if (!ownExecutor) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("listener dispatcher did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record CacheEvent<K, V>(K key, V value, String action) {
+    }
+
+    private class ListenerChannel {
+        private final HwListener<K, V> listener;
+        // в буфере только ключи, само событие лежит в pending и может быть замещено более новым
+        private final BlockingQueue<K> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final Map<K, CacheEvent<K, V>> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final AtomicLong reportedDropped = new AtomicLong();
+
+        ListenerChannel(HwListener<K, V> listener) {
+            this.listener = listener;
+        }
+
+        void publish(CacheEvent<K, V> event) {
+            if (pending.put(event.key(), event) != null) {
+                coalesced.increment();
+                return;
+            }
+            if (!buffer.offer(event.key())) {
+                dropped.increment();
+                if (!pending.remove(event.key(), event) && pending.remove(event.key()) != null) {
+                    // событие успели заместить более новым, у которого тоже нет места в буфере:
+                    // оно учтено как coalesced, но доставлено не будет
+                    coalesced.decrement();
+                    dropped.increment();
+                }
+                return;
+            }
+            schedule();
+        }
+
+        void scheduleIfNotEmpty() {
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    if (closing) {
+                        // executor остановлен в close(): доставляем сами, а не выбрасываем буфер
+                        drain();
+                        return;
+                    }
+                    scheduled.set(false);
+                    dropped.add(buffer.size());
+                    buffer.clear();
+                    pending.clear();
+                }
+            }
+        }
+
+        private void drain() {
+            List<K> batch = new ArrayList<>(batchSize);
+            try {
+                do {
+                    batch.clear();
+                    buffer.drainTo(batch, batchSize);
+                    for (var key : batch) {
+                        var event = pending.remove(key);
+                        if (event != null) {
+                            deliver(event);
+                        }
+                    }
+                    // при закрытии перепланировать уже нельзя: executor вот-вот откажет в приеме задач
+                } while (closing && !buffer.isEmpty());
+                reportDropped();
+            } finally {
+                scheduled.set(false);
+            }
+            // остаток буфера (или событие, пришедшее после drainTo) доставляется следующим заходом,
+            // чтобы не занимать поток executor-а в ущерб другим слушателям
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void deliver(CacheEvent<K, V> event) {
+            try {
+                listener.notify(event.key(), event.value(), event.action());
+            } catch (Exception e) {
+                logger.error("listener error, key:{}, action:{}", event.key(), event.action(), e);
+            }
+        }
+
+        private void reportDropped() {
+            var droppedTotal = dropped.sum();
+            var reported = reportedDropped.getAndSet(droppedTotal);
+            if (droppedTotal > reported) {
+                logger.warn("listener {} falls behind, dropped events: {} (total: {})",
+                        listener, droppedTotal - reported, droppedTotal);
+            }
+        }
+    }
+}
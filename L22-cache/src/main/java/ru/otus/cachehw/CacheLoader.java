@@ -0,0 +1,31 @@
+package ru.otus.cachehw;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Источник данных для {@link LoadingCache}.
+ */
+public interface CacheLoader<K, V> {
+
+    /**
+     * @return значение или null, если для ключа данных нет
+     */
+    V load(K key) throws Exception;
+
+    /**
+     * Загрузка нескольких ключей за один вызов.
+     * По умолчанию ключи грузятся по одному, источники с пакетным API должны переопределить метод.
+     */
+    default Map<K, V> loadAll(Collection<K> keys) throws Exception {
+        Map<K, V> result = new HashMap<>();
+        for (var key : keys) {
+            var value = load(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.otus.cachehw;
+
+public class CacheLoaderException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CacheLoaderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
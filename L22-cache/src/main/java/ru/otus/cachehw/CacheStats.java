@@ -0,0 +1,13 @@
+package ru.otus.cachehw;
+
+public record CacheStats(long hitCount, long missCount, long evictionCount) {
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public double hitRate() {
+        var requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.otus.cachehw;
+
+import java.util.Map;
+
+/**
+ * Приемник отложенной записи (write-behind) для {@link LoadingCache}.
+ */
+public interface CacheWriter<K, V> {
+
+    void writeAll(Map<K, V> entries) throws Exception;
+}
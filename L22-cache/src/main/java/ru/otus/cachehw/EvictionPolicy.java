@@ -0,0 +1,22 @@
+package ru.otus.cachehw;
+
+/**
+ * Политика вытеснения ключей из ограниченного кеша.
+ * Реализации не потокобезопасны, синхронизацию обеспечивает кеш.
+ */
+public interface EvictionPolicy<K> {
+
+    /**
+     * Обращение к ключу, который уже есть в кеше.
+     */
+    void onAccess(K key);
+
+    /**
+     * Добавление нового ключа.
+     *
+     * @return ключ, который надо вытеснить из кеша (может совпадать с добавляемым), или null
+     */
+    K onInsert(K key);
+
+    void onRemove(K key);
+}
@@ -0,0 +1,15 @@
+package ru.otus.cachehw;
+
+public enum EvictionPolicyType {
+    LRU,
+    LFU,
+    W_TINY_LFU;
+
+    public <K> EvictionPolicy<K> create(int maximumSize) {
+        return switch (this) {
+            case LRU -> new LruEvictionPolicy<>(maximumSize);
+            case LFU -> new LfuEvictionPolicy<>(maximumSize);
+            case W_TINY_LFU -> new WTinyLfuEvictionPolicy<>(maximumSize);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package ru.otus.cachehw;
+
+/**
+ * Count-Min Sketch с 4-битными (не больше 15) счетчиками и периодическим "старением":
+ * после sampleSize инкрементов все счетчики делятся пополам,
+ * поэтому давно популярные ключи постепенно теряют частоту.
+ */
+class FrequencySketch<K> {
+    private static final int DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x8f1a4e5b, 0xc2b2ae35, 0x27d4eb2f};
+
+    private final int[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        var width = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+        this.table = new int[DEPTH * width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(maximumSize, 16);
+    }
+
+    int frequency(K key) {
+        var hash = spread(key.hashCode());
+        var frequency = MAX_FREQUENCY;
+        for (var row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[index(hash, row)]);
+        }
+        return frequency;
+    }
+
+    void increment(K key) {
+        var hash = spread(key.hashCode());
+        var added = false;
+        for (var row = 0; row < DEPTH; row++) {
+            var idx = index(hash, row);
+            if (table[idx] < MAX_FREQUENCY) {
+                table[idx]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (var idx = 0; idx < table.length; idx++) {
+            table[idx] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int index(int hash, int row) {
+        var h = (hash ^ SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private static int spread(int hash) {
+        var h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
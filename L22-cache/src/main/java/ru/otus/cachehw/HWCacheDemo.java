@@ -3,12 +3,16 @@ package ru.otus.cachehw;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
+
 
 public class HWCacheDemo {
     private static final Logger logger = LoggerFactory.getLogger(HWCacheDemo.class);
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         new HWCacheDemo().demo();
+        new HWCacheDemo().asyncListenerDemo();
+        new HWCacheDemo().referenceCacheDemo();
     }
 
     private void demo() {
@@ -28,5 +32,56 @@ public class HWCacheDemo {
         logger.info("getValue:{}", cache.get("1"));
         cache.remove("1");
         cache.removeListener(listener);
+
+        // ограниченный кеш: при переполнении часть ключей вытесняется политикой
+        var boundedCache = new MyCache<Integer, Integer>(100, EvictionPolicyType.W_TINY_LFU);
+        for (var idx = 0; idx < 1_000; idx++) {
+            boundedCache.put(idx % 10, idx);
+            boundedCache.put(idx, idx);
+            boundedCache.get(idx % 10);
+        }
+        logger.info("size:{}, stats:{}", boundedCache.size(), boundedCache.stats());
+    }
+
+    // медленный слушатель не тормозит put: события копятся в буфере, лишние замещаются или отбрасываются
+    private void asyncListenerDemo() throws InterruptedException {
+        try (var dispatcher = new AsyncListenerDispatcher<Integer, Integer>()) {
+            var cache = new MyCache<>(EvictionPolicyType.LRU.<Integer>create(100), dispatcher);
+            HwListener<Integer, Integer> slowListener = (key, value, action) -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            cache.addListener(slowListener);
+
+            var begin = System.nanoTime();
+            for (var idx = 0; idx < 100_000; idx++) {
+                cache.put(idx % 2_000, idx);
+            }
+            logger.info("puts took:{} ms, coalesced:{}, dropped:{}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin),
+                    dispatcher.coalescedCount(), dispatcher.droppedCount(slowListener));
+        }
+    }
+
+    // значения держатся слабыми ссылками: после gc записи вычищаются, слушатель получает evict
+    private void referenceCacheDemo() throws InterruptedException {
+        try (var cache = new ReferenceCache<Integer, byte[]>(ValueReferenceType.WEAK)) {
+            cache.shrinkOnHeapPressure(0.8, 0.5);
+            cache.addListener((key, value, action) -> {
+                if (HwListener.ACTION_EVICT.equals(action)) {
+                    logger.debug("evicted key:{}", key);
+                }
+            });
+            for (var idx = 0; idx < 1_000; idx++) {
+                cache.put(idx, new byte[1024]);
+            }
+            logger.info("before gc size:{}", cache.size());
+            System.gc();
+            Thread.sleep(100);
+            logger.info("after gc size:{}, stats:{}", cache.size(), cache.stats());
+        }
     }
 }
@@ -0,0 +1,71 @@
+package ru.otus.cachehw;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Подписывается на уведомления о сборках мусора (как GcDemo.switchOnMonitoring в L08-gc)
+ * и сообщает о заполненности heap после сборки, если она выше порога.
+ */
+public class HeapPressureMonitor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(HeapPressureMonitor.class);
+
+    private final double occupancyThreshold;
+    private final DoubleConsumer onPressure;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::handleNotification;
+
+    public HeapPressureMonitor(double occupancyThreshold, DoubleConsumer onPressure) {
+        if (occupancyThreshold <= 0 || occupancyThreshold > 1) {
+            throw new IllegalArgumentException("occupancyThreshold must be in (0, 1]: " + occupancyThreshold);
+        }
+        this.occupancyThreshold = occupancyThreshold;
+        this.onPressure = onPressure;
+
+        for (var gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, notification -> notification.getType()
+                        .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION), null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        var heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        var max = heapUsage.getMax() > 0 ? heapUsage.getMax() : heapUsage.getCommitted();
+        var occupancy = (double) heapUsage.getUsed() / max;
+        if (occupancy >= occupancyThreshold) {
+            logger.debug("heap occupancy after {}: {}", info.getGcName(), occupancy);
+            try {
+                onPressure.accept(occupancy);
+            } catch (Exception e) {
+                logger.error("heap pressure handler error", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (var emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                logger.warn("gc listener already removed", e);
+            }
+        }
+        emitters.clear();
+    }
+}
@@ -2,5 +2,9 @@ package ru.otus.cachehw;
 
 
 public interface HwListener<K, V> {
+    String ACTION_PUT = "put";
+    String ACTION_REMOVE = "remove";
+    String ACTION_EVICT = "evict";
+
     void notify(K key, V value, String action);
 }
@@ -0,0 +1,72 @@
+package ru.otus.cachehw;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Вытесняется ключ с наименьшим числом обращений, среди равных - самый старый.
+ * Все операции O(1): ключи разложены по "корзинам" частот.
+ */
+public class LfuEvictionPolicy<K> implements EvictionPolicy<K> {
+    private final int maximumSize;
+    private final Map<K, Integer> frequencies = new HashMap<>();
+    private final Map<Integer, LinkedHashSet<K>> buckets = new HashMap<>();
+    private int minFrequency;
+
+    public LfuEvictionPolicy(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public void onAccess(K key) {
+        var frequency = frequencies.get(key);
+        if (frequency == null) {
+            return;
+        }
+        removeFromBucket(key, frequency);
+        if (minFrequency == frequency && !buckets.containsKey(frequency)) {
+            minFrequency = frequency + 1;
+        }
+        frequencies.put(key, frequency + 1);
+        buckets.computeIfAbsent(frequency + 1, f -> new LinkedHashSet<>()).add(key);
+    }
+
+    @Override
+    public K onInsert(K key) {
+        // вытесняем до добавления, иначе новый ключ с частотой 1 сразу станет кандидатом
+        K victim = null;
+        if (frequencies.size() >= maximumSize) {
+            victim = buckets.get(minFrequency).iterator().next();
+            removeFromBucket(victim, minFrequency);
+            frequencies.remove(victim);
+        }
+        frequencies.put(key, 1);
+        buckets.computeIfAbsent(1, f -> new LinkedHashSet<>()).add(key);
+        minFrequency = 1;
+        return victim;
+    }
+
+    @Override
+    public void onRemove(K key) {
+        var frequency = frequencies.remove(key);
+        if (frequency == null) {
+            return;
+        }
+        removeFromBucket(key, frequency);
+        if (minFrequency == frequency && !buckets.containsKey(frequency)) {
+            minFrequency = buckets.keySet().stream().mapToInt(Integer::intValue).min().orElse(0);
+        }
+    }
+
+    private void removeFromBucket(K key, int frequency) {
+        var bucket = buckets.get(frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(frequency);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.otus.cachehw;
+
+/**
+ * Доставка событий кеша слушателям.
+ */
+public interface ListenerDispatcher<K, V> {
+
+    void addListener(HwListener<K, V> listener);
+
+    void removeListener(HwListener<K, V> listener);
+
+    void dispatch(K key, V value, String action);
+}
@@ -0,0 +1,330 @@
+package ru.otus.cachehw;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through / write-behind слой поверх любого {@link HwCache}.
+ * <ul>
+ *     <li>при промахе значение грузится через {@link CacheLoader}, одновременные промахи
+ *     по одному ключу ждут одну и ту же загрузку;</li>
+ *     <li>после refreshAfterWrite значение отдается из кеша, а в фоне запускается его обновление,
+ *     после expireAfterWrite значение считается устаревшим и грузится синхронно;</li>
+ *     <li>{@link #getAll(Collection)} грузит все недостающие ключи одним вызовом {@link CacheLoader#loadAll};</li>
+ *     <li>put при заданном {@link CacheWriter} копит изменения и периодически пишет их пачкой.</li>
+ * </ul>
+ * Время загрузки хранится отдельно от значений и чистится по событиям remove/evict кеша.
+ */
+public class LoadingCache<K, V> implements HwCache<K, V>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LoadingCache.class);
+
+    private final HwCache<K, V> delegate;
+    private final CacheLoader<K, V> loader;
+    private final CacheWriter<K, V> writer;
+    private final long refreshAfterWriteNanos;
+    private final long expireAfterWriteNanos;
+    private final ScheduledExecutorService executor;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Long> loadTimes = new ConcurrentHashMap<>();
+    private final Map<K, V> pendingWrites = new ConcurrentHashMap<>();
+
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder coalescedLoadCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+
+    private LoadingCache(Builder<K, V> builder) {
+        this.delegate = builder.delegate;
+        this.loader = builder.loader;
+        this.writer = builder.writer;
+        this.refreshAfterWriteNanos = builder.refreshAfterWrite.toNanos();
+        this.expireAfterWriteNanos = builder.expireAfterWrite.toNanos();
+        this.executor = Executors.newScheduledThreadPool(builder.backgroundThreads, runnable -> {
+            var thread = new Thread(runnable, "loading-cache-background");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        delegate.addListener((key, value, action) -> {
+            if (HwListener.ACTION_REMOVE.equals(action) || HwListener.ACTION_EVICT.equals(action)) {
+                loadTimes.remove(key);
+            }
+        });
+        if (writer != null) {
+            var delayMillis = builder.writeBehindDelay.toMillis();
+            executor.scheduleWithFixedDelay(this::flushWrites, delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        var value = delegate.get(key);
+        if (value != null) {
+            var age = age(key);
+            if (age < refreshAfterWriteNanos) {
+                return value;
+            }
+            if (age < expireAfterWriteNanos) {
+                refreshAsync(key);
+                return value;
+            }
+        }
+        return load(key);
+    }
+
+    /**
+     * Значения для всех ключей: найденные в кеше отдаются сразу,
+     * недостающие грузятся одним вызовом {@link CacheLoader#loadAll}.
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        Map<K, CompletableFuture<V>> ownLoads = new HashMap<>();
+        Map<K, CompletableFuture<V>> foreignLoads = new HashMap<>();
+        for (var key : keys) {
+            var value = delegate.get(key);
+            if (value != null && age(key) < expireAfterWriteNanos) {
+                result.put(key, value);
+                continue;
+            }
+            var future = new CompletableFuture<V>();
+            var existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                ownLoads.put(key, future);
+            } else {
+                coalescedLoadCount.increment();
+                foreignLoads.put(key, existing);
+            }
+        }
+
+        if (!ownLoads.isEmpty()) {
+            try {
+                loadCount.add(ownLoads.size());
+                var loaded = loader.loadAll(ownLoads.keySet());
+                for (var ownLoad : ownLoads.entrySet()) {
+                    var value = loaded.get(ownLoad.getKey());
+                    store(ownLoad.getKey(), value);
+                    ownLoad.getValue().complete(value);
+                }
+            } catch (Exception e) {
+                ownLoads.values().forEach(future -> future.completeExceptionally(e));
+            } finally {
+                ownLoads.forEach(inFlight::remove);
+            }
+        }
+
+        ownLoads.forEach((key, future) -> putIfNotNull(result, key, await(key, future)));
+        foreignLoads.forEach((key, future) -> putIfNotNull(result, key, await(key, future)));
+        return result;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        store(key, value);
+        if (writer != null) {
+            pendingWrites.put(key, value);
+        }
+    }
+
+    /**
+     * Удаляет значение только из кеша; отложенная запись по ключу, если еще не выполнена, отменяется.
+     */
+    @Override
+    public void remove(K key) {
+        pendingWrites.remove(key);
+        delegate.remove(key);
+        loadTimes.remove(key);
+    }
+
+    @Override
+    public void addListener(HwListener<K, V> listener) {
+        delegate.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(HwListener<K, V> listener) {
+        delegate.removeListener(listener);
+    }
+
+    public long loadCount() {
+        return loadCount.sum();
+    }
+
+    public long coalescedLoadCount() {
+        return coalescedLoadCount.sum();
+    }
+
+    public long refreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * Дописывает накопленные изменения и останавливает фоновые потоки.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("loading cache background tasks did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer != null) {
+            flushWrites();
+        }
+    }
+
+    private V load(K key) {
+        var future = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedLoadCount.increment();
+            return await(key, existing);
+        }
+        // первый промахнувшийся поток грузит сам, без переключения на другой поток
+        loadInto(key, future);
+        return await(key, future);
+    }
+
+    private void refreshAsync(K key) {
+        var future = new CompletableFuture<V>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return;
+        }
+        refreshCount.increment();
+        try {
+            executor.execute(() -> loadInto(key, future));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.cancel(false);
+        }
+    }
+
+    private void loadInto(K key, CompletableFuture<V> future) {
+        try {
+            loadCount.increment();
+            var value = loader.load(key);
+            store(key, value);
+            future.complete(value);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private void store(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        loadTimes.put(key, System.nanoTime());
+        delegate.put(key, value);
+    }
+
+    private long age(K key) {
+        var loadTime = loadTimes.get(key);
+        if (loadTime == null) {
+            // значение положили в кеш в обход этого слоя, считаем его свежим
+            loadTimes.putIfAbsent(key, System.nanoTime());
+            return 0;
+        }
+        return System.nanoTime() - loadTime;
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException("interrupted while loading key: " + key, e);
+        } catch (ExecutionException e) {
+            throw new CacheLoaderException("can't load key: " + key, e.getCause());
+        }
+    }
+
+    private void flushWrites() {
+        Map<K, V> batch = new HashMap<>();
+        for (var entry : pendingWrites.entrySet()) {
+            // если за это время ключ перезаписали, новое значение уйдет следующей пачкой
+            if (pendingWrites.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writer.writeAll(batch);
+        } catch (Exception e) {
+            logger.error("write-behind error, entries will be retried:{}", batch.size(), e);
+            batch.forEach(pendingWrites::putIfAbsent);
+        }
+    }
+
+    private static <K, V> void putIfNotNull(Map<K, V> map, K key, V value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final HwCache<K, V> delegate;
+        private final CacheLoader<K, V> loader;
+        private CacheWriter<K, V> writer;
+        private Duration refreshAfterWrite = Duration.ofMinutes(1);
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        private Duration writeBehindDelay = Duration.ofSeconds(1);
+        private int backgroundThreads = 2;
+
+        public Builder(HwCache<K, V> delegate, CacheLoader<K, V> loader) {
+            this.delegate = Objects.requireNonNull(delegate);
+            this.loader = Objects.requireNonNull(loader);
+        }
+
+        public Builder<K, V> refreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public Builder<K, V> writeBehind(CacheWriter<K, V> writer, Duration writeBehindDelay) {
+            this.writer = writer;
+            this.writeBehindDelay = writeBehindDelay;
+            return this;
+        }
+
+        public Builder<K, V> backgroundThreads(int backgroundThreads) {
+            this.backgroundThreads = backgroundThreads;
+            return this;
+        }
+
+        public LoadingCache<K, V> build() {
+            if (refreshAfterWrite.compareTo(expireAfterWrite) > 0) {
+                throw new IllegalArgumentException("refreshAfterWrite must not exceed expireAfterWrite");
+            }
+            if (backgroundThreads <= 0) {
+                throw new IllegalArgumentException("backgroundThreads must be positive: " + backgroundThreads);
+            }
+            return new LoadingCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.otus.cachehw;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Вытесняется ключ, к которому дольше всего не обращались.
+ */
+public class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+    private final int maximumSize;
+    // LinkedHashMap в режиме accessOrder сам переставляет ключ в конец при get
+    private final Map<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LruEvictionPolicy(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public void onAccess(K key) {
+        order.get(key);
+    }
+
+    @Override
+    public K onInsert(K key) {
+        order.put(key, Boolean.TRUE);
+        if (order.size() <= maximumSize) {
+            return null;
+        }
+        var eldest = order.keySet().iterator().next();
+        order.remove(eldest);
+        return eldest;
+    }
+
+    @Override
+    public void onRemove(K key) {
+        order.remove(key);
+    }
+}
@@ -1,31 +1,128 @@
 package ru.otus.cachehw;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+
+/**
+ * Ограниченный по размеру потокобезопасный кеш.
+ * Значения лежат в ConcurrentHashMap, поэтому get не блокируется.
+ * Политика вытеснения не потокобезопасна и защищена отдельной блокировкой;
+ * читатели только пытаются ее захватить, и при конкуренции обращение в политике не учитывается.
+ * Слушатели вызываются вне блокировки через {@link ListenerDispatcher}.
+ */
 public class MyCache<K, V> implements HwCache<K, V> {
-//Надо реализовать эти методы
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final Map<K, V> storage = new ConcurrentHashMap<>();
+    private final EvictionPolicy<K> evictionPolicy;
+    private final Lock policyLock = new ReentrantLock();
+    private final ListenerDispatcher<K, V> listenerDispatcher;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public MyCache() {
+        this(DEFAULT_MAXIMUM_SIZE, EvictionPolicyType.LRU);
+    }
+
+    public MyCache(int maximumSize, EvictionPolicyType evictionPolicyType) {
+        this(evictionPolicyType.create(maximumSize));
+    }
+
+    public MyCache(EvictionPolicy<K> evictionPolicy) {
+        this(evictionPolicy, new SyncListenerDispatcher<>());
+    }
+
+    public MyCache(EvictionPolicy<K> evictionPolicy, ListenerDispatcher<K, V> listenerDispatcher) {
+        this.evictionPolicy = Objects.requireNonNull(evictionPolicy);
+        this.listenerDispatcher = Objects.requireNonNull(listenerDispatcher);
+    }
 
     @Override
     public void put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        K victim = null;
+        V victimValue = null;
+        policyLock.lock();
+        try {
+            if (storage.put(key, value) == null) {
+                victim = evictionPolicy.onInsert(key);
+                if (victim != null) {
+                    victimValue = storage.remove(victim);
+                    evictionCount.increment();
+                }
+            } else {
+                evictionPolicy.onAccess(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
 
+        listenerDispatcher.dispatch(key, value, HwListener.ACTION_PUT);
+        if (victim != null) {
+            listenerDispatcher.dispatch(victim, victimValue, HwListener.ACTION_EVICT);
+        }
     }
 
     @Override
     public void remove(K key) {
+        V removed;
+        policyLock.lock();
+        try {
+            removed = storage.remove(key);
+            if (removed != null) {
+                evictionPolicy.onRemove(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
 
+        if (removed != null) {
+            listenerDispatcher.dispatch(key, removed, HwListener.ACTION_REMOVE);
+        }
     }
 
     @Override
     public V get(K key) {
-        return null;
+        var value = storage.get(key);
+        if (value == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        if (policyLock.tryLock()) {
+            try {
+                evictionPolicy.onAccess(key);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return value;
     }
 
     @Override
     public void addListener(HwListener<K, V> listener) {
-
+        listenerDispatcher.addListener(listener);
     }
 
     @Override
     public void removeListener(HwListener<K, V> listener) {
+        listenerDispatcher.removeListener(listener);
+    }
+
+    public int size() {
+        return storage.size();
+    }
 
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
     }
 }
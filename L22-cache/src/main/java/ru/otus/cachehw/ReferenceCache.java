@@ -0,0 +1,216 @@
+package ru.otus.cachehw;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кеш, чувствительный к памяти: значения хранятся через слабые или мягкие ссылки.
+ * <p>
+ * Очищенные GC ссылки попадают в ReferenceQueue, отдельный поток удаляет по ним записи
+ * и отправляет слушателям событие {@link HwListener#ACTION_EVICT} (значение в нем уже null).
+ * Дополнительно кеш может сам сбрасывать часть записей, если после сборки мусора heap заполнен
+ * выше порога, не дожидаясь, пока JVM начнет чистить мягкие ссылки при полной сборке.
+ */
+public class ReferenceCache<K, V> implements HwCache<K, V>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceCache.class);
+
+    private final Map<K, ValueReference<K, V>> storage = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> referenceQueue = new ReferenceQueue<>();
+    private final ValueReferenceType referenceType;
+    private final ListenerDispatcher<K, V> listenerDispatcher;
+    private final Thread cleaner;
+    private HeapPressureMonitor heapPressureMonitor;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public ReferenceCache(ValueReferenceType referenceType) {
+        this(referenceType, new SyncListenerDispatcher<>());
+    }
+
+    public ReferenceCache(ValueReferenceType referenceType, ListenerDispatcher<K, V> listenerDispatcher) {
+        this.referenceType = Objects.requireNonNull(referenceType);
+        this.listenerDispatcher = Objects.requireNonNull(listenerDispatcher);
+        this.cleaner = new Thread(this::cleanUp, "reference-cache-cleaner");
+        this.cleaner.setDaemon(true);
+        this.cleaner.start();
+    }
+
+    /**
+     * При заполненности heap после сборки мусора выше occupancyThreshold
+     * из кеша удаляется доля записей shrinkFraction.
+     */
+    public synchronized void shrinkOnHeapPressure(double occupancyThreshold, double shrinkFraction) {
+        if (heapPressureMonitor != null) {
+            heapPressureMonitor.close();
+        }
+        heapPressureMonitor = new HeapPressureMonitor(occupancyThreshold, occupancy -> {
+            var removed = shrink(shrinkFraction);
+            logger.info("heap occupancy:{}, removed entries:{}", occupancy, removed);
+        });
+    }
+
+    /**
+     * Удаляет из кеша примерно долю fraction записей.
+     *
+     * @return количество удаленных записей
+     */
+    public int shrink(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction must be in (0, 1]: " + fraction);
+        }
+        var toRemove = (int) Math.ceil(storage.size() * fraction);
+        var removed = 0;
+        var iterator = storage.values().iterator();
+        while (removed < toRemove && iterator.hasNext()) {
+            var reference = iterator.next();
+            if (storage.remove(reference.key(), reference)) {
+                var value = reference.get();
+                reference.clear();
+                evict(reference.key(), value);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        storage.put(key, newReference(key, value));
+        listenerDispatcher.dispatch(key, value, HwListener.ACTION_PUT);
+    }
+
+    @Override
+    public void remove(K key) {
+        var reference = storage.remove(key);
+        if (reference == null) {
+            return;
+        }
+        var value = reference.get();
+        if (value != null) {
+            listenerDispatcher.dispatch(key, value, HwListener.ACTION_REMOVE);
+        } else {
+            evict(key, null);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        var reference = storage.get(key);
+        var value = reference == null ? null : reference.get();
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        missCount.increment();
+        // значение уже собрано, но ссылка еще не дошла до очереди
+        if (reference != null && storage.remove(key, reference)) {
+            evict(key, null);
+        }
+        return null;
+    }
+
+    @Override
+    public void addListener(HwListener<K, V> listener) {
+        listenerDispatcher.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(HwListener<K, V> listener) {
+        listenerDispatcher.removeListener(listener);
+    }
+
+    public int size() {
+        return storage.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (heapPressureMonitor != null) {
+            heapPressureMonitor.close();
+            heapPressureMonitor = null;
+        }
+        cleaner.interrupt();
+    }
+
+    private ValueReference<K, V> newReference(K key, V value) {
+        return switch (referenceType) {
+            case WEAK -> new WeakValueReference<>(key, value, referenceQueue);
+            case SOFT -> new SoftValueReference<>(key, value, referenceQueue);
+        };
+    }
+
+    private void cleanUp() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                var reference = (ValueReference<?, ?>) referenceQueue.remove();
+                @SuppressWarnings("unchecked")
+                var key = (K) reference.key();
+                // запись могла быть уже перезаписана новым значением или удалена в get
+                if (storage.remove(key, reference)) {
+                    evict(key, null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("reference cleanup error", e);
+            }
+        }
+    }
+
+    private void evict(K key, V value) {
+        evictionCount.increment();
+        listenerDispatcher.dispatch(key, value, HwListener.ACTION_EVICT);
+    }
+
+    private interface ValueReference<K, V> {
+        K key();
+
+        V get();
+
+        void clear();
+    }
+
+    private static class WeakValueReference<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+        private final K key;
+
+        WeakValueReference(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+    }
+
+    private static class SoftValueReference<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+        private final K key;
+
+        SoftValueReference(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.otus.cachehw;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Слушатели вызываются в потоке, который выполняет операцию с кешем.
+ */
+public class SyncListenerDispatcher<K, V> implements ListenerDispatcher<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(SyncListenerDispatcher.class);
+
+    private final List<HwListener<K, V>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void addListener(HwListener<K, V> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(HwListener<K, V> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void dispatch(K key, V value, String action) {
+        for (var listener : listeners) {
+            try {
+                listener.notify(key, value, action);
+            } catch (Exception e) {
+                logger.error("listener error, key:{}, action:{}", key, action, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.otus.cachehw;
+
+public enum ValueReferenceType {
+    /**
+     * Значение удаляется при первой сборке мусора, если на него нет сильных ссылок.
+     */
+    WEAK,
+    /**
+     * Значение удаляется, только когда JVM не хватает памяти.
+     */
+    SOFT
+}
@@ -0,0 +1,98 @@
+package ru.otus.cachehw;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Упрощенный W-TinyLFU.
+ * Новые ключи попадают в маленькое LRU-"окно" (1% размера кеша).
+ * Вытесненный из окна ключ допускается в основную SLRU-область (probation + protected),
+ * только если по оценке {@link FrequencySketch} он встречался чаще, чем кандидат на вытеснение из нее.
+ * Так разовые обращения не вымывают из кеша популярные ключи.
+ */
+public class WTinyLfuEvictionPolicy<K> implements EvictionPolicy<K> {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final int windowMaximumSize;
+    private final int mainMaximumSize;
+    private final int protectedMaximumSize;
+
+    private final LinkedHashSet<K> window = new LinkedHashSet<>();
+    private final LinkedHashSet<K> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<K> protectedSegment = new LinkedHashSet<>();
+    private final FrequencySketch<K> sketch;
+
+    public WTinyLfuEvictionPolicy(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.windowMaximumSize = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+        this.mainMaximumSize = maximumSize - windowMaximumSize;
+        this.protectedMaximumSize = mainMaximumSize * PROTECTED_PERCENT / 100;
+        this.sketch = new FrequencySketch<>(maximumSize);
+    }
+
+    @Override
+    public void onAccess(K key) {
+        sketch.increment(key);
+        if (moveToTail(window, key) || moveToTail(protectedSegment, key)) {
+            return;
+        }
+        if (probation.remove(key)) {
+            protectedSegment.add(key);
+            if (protectedSegment.size() > protectedMaximumSize) {
+                var demoted = removeEldest(protectedSegment);
+                probation.add(demoted);
+            }
+        }
+    }
+
+    @Override
+    public K onInsert(K key) {
+        sketch.increment(key);
+        window.add(key);
+        if (window.size() <= windowMaximumSize) {
+            return null;
+        }
+
+        var candidate = removeEldest(window);
+        if (probation.size() + protectedSegment.size() < mainMaximumSize) {
+            probation.add(candidate);
+            return null;
+        }
+        if (mainMaximumSize == 0) {
+            return candidate;
+        }
+
+        var victim = probation.isEmpty() ? protectedSegment.iterator().next() : probation.iterator().next();
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            probation.remove(victim);
+            protectedSegment.remove(victim);
+            probation.add(candidate);
+            return victim;
+        }
+        return candidate;
+    }
+
+    @Override
+    public void onRemove(K key) {
+        if (!window.remove(key) && !probation.remove(key)) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    private boolean moveToTail(LinkedHashSet<K> segment, K key) {
+        if (segment.remove(key)) {
+            segment.add(key);
+            return true;
+        }
+        return false;
+    }
+
+    private K removeEldest(LinkedHashSet<K> segment) {
+        var iterator = segment.iterator();
+        var eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+}
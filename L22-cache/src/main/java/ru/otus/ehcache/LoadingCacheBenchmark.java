@@ -0,0 +1,119 @@
+package ru.otus.ehcache;
+
+import org.ehcache.Cache;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.cachehw.EvictionPolicyType;
+import ru.otus.cachehw.LoadingCache;
+import ru.otus.cachehw.MyCache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Сравнение задержек чтения через кеш перед SlowDataSrc (1 сек. на ключ):
+ * get/put в Ehcache, как в EhcacheDemo, против LoadingCache, где одновременные промахи
+ * по одному ключу ждут одну загрузку. Ключи выбираются по распределению Ципфа.
+ * <p>
+ * Параметры: [потоков] [запросов на поток] [ключей] [размер кеша]
+ */
+public class LoadingCacheBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(LoadingCacheBenchmark.class);
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    private final int threads;
+    private final int requestsPerThread;
+    private final int keyCount;
+    private final int cacheSize;
+
+    public LoadingCacheBenchmark(int threads, int requestsPerThread, int keyCount, int cacheSize) {
+        this.threads = threads;
+        this.requestsPerThread = requestsPerThread;
+        this.keyCount = keyCount;
+        this.cacheSize = cacheSize;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var benchmark = new LoadingCacheBenchmark(
+                intArg(args, 0, 32), intArg(args, 1, 50), intArg(args, 2, 200), intArg(args, 3, 50));
+        benchmark.ehcache();
+        benchmark.loadingCache();
+    }
+
+    private void ehcache() throws InterruptedException {
+        try (var cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true)) {
+            Cache<Integer, Long> cache = cacheManager.createCache("Benchmark-Cache",
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Integer.class, Long.class,
+                            ResourcePoolsBuilder.heap(cacheSize)).build());
+            run("ehcache", key -> {
+                Long value = cache.get(key);
+                if (value == null) {
+                    value = SlowDataSrc.getValue(key);
+                    cache.put(key, value);
+                }
+                return value;
+            });
+        }
+    }
+
+    private void loadingCache() throws InterruptedException {
+        try (var cache = new LoadingCache.Builder<Integer, Long>(
+                new MyCache<>(cacheSize, EvictionPolicyType.W_TINY_LFU), SlowDataSrc::getValue)
+                .refreshAfterWrite(Duration.ofSeconds(30))
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build()) {
+            run("loadingCache", cache::get);
+            logger.info("loadingCache loads:{}, coalesced:{}", cache.loadCount(), cache.coalescedLoadCount());
+        }
+    }
+
+    private void run(String name, IntToLongFunction getter) throws InterruptedException {
+        var latencies = new long[threads * requestsPerThread];
+        var startLatch = new CountDownLatch(1);
+        var doneLatch = new CountDownLatch(threads);
+        for (var threadIdx = 0; threadIdx < threads; threadIdx++) {
+            var offset = threadIdx * requestsPerThread;
+            var keys = new ZipfianGenerator(keyCount, ZIPF_EXPONENT, new SplittableRandom(threadIdx));
+            new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (var idx = 0; idx < requestsPerThread; idx++) {
+                        var begin = System.nanoTime();
+                        getter.applyAsLong(keys.next());
+                        latencies[offset + idx] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            }, name + "-" + threadIdx).start();
+        }
+
+        var begin = System.nanoTime();
+        startLatch.countDown();
+        doneLatch.await();
+        var totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        Arrays.sort(latencies);
+        logger.info("{}: requests:{}, time:{} ms, p50:{} ms, p90:{} ms, p99:{} ms, max:{} ms", name,
+                latencies.length, totalMillis, percentile(latencies, 0.5), percentile(latencies, 0.9),
+                percentile(latencies, 0.99), TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length - 1]));
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        var idx = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(idx, 0)] / 1_000_000.0;
+    }
+
+    private static int intArg(String[] args, int idx, int defaultValue) {
+        return args.length > idx ? Integer.parseInt(args[idx]) : defaultValue;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.otus.ehcache;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ключи 0..itemCount-1 с распределением Ципфа: вероятность ключа k пропорциональна 1/(k+1)^exponent.
+ */
+class ZipfianGenerator {
+    private final double[] cumulative;
+    private final RandomGenerator random;
+
+    ZipfianGenerator(int itemCount, double exponent, RandomGenerator random) {
+        this.cumulative = new double[itemCount];
+        this.random = random;
+        var sum = 0.0;
+        for (var idx = 0; idx < itemCount; idx++) {
+            sum += 1.0 / Math.pow(idx + 1.0, exponent);
+            cumulative[idx] = sum;
+        }
+        for (var idx = 0; idx < itemCount; idx++) {
+            cumulative[idx] /= sum;
+        }
+    }
+
+    int next() {
+        var idx = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(idx >= 0 ? idx : -idx - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+
+    @Test
+    void shouldCountIncrements() {
+        var sketch = new FrequencySketch<String>(100);
+
+        IntStream.range(0, 5).forEach(idx -> sketch.increment("key"));
+
+        assertThat(sketch.frequency("key")).isEqualTo(5);
+        assertThat(sketch.frequency("unknown")).isZero();
+    }
+
+    @Test
+    void shouldSaturateAtMaxFrequency() {
+        var sketch = new FrequencySketch<String>(100);
+
+        IntStream.range(0, 100).forEach(idx -> sketch.increment("key"));
+
+        assertThat(sketch.frequency("key")).isEqualTo(15);
+    }
+
+    @Test
+    void shouldNeverUnderestimateFrequency() {
+        var sketch = new FrequencySketch<Integer>(16);
+        IntStream.range(0, 64).forEach(sketch::increment);
+        IntStream.range(0, 3).forEach(idx -> sketch.increment(7));
+
+        assertThat(sketch.frequency(7)).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void shouldHalveCountersAfterSampleSizeIncrements() {
+        var sketch = new FrequencySketch<String>(1000);
+        IntStream.range(0, 15).forEach(idx -> sketch.increment("hot"));
+
+        // sampleSize = 10 * maximumSize
+        IntStream.range(0, 10_000).forEach(idx -> sketch.increment("key_" + idx));
+
+        assertThat(sketch.frequency("hot")).isLessThan(15).isGreaterThanOrEqualTo(7);
+    }
+}
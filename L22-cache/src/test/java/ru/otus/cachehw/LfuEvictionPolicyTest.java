@@ -0,0 +1,65 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LfuEvictionPolicyTest {
+
+    @Test
+    void shouldEvictLeastFrequentlyUsedKey() {
+        var policy = new LfuEvictionPolicy<Integer>(3);
+        policy.onInsert(1);
+        policy.onInsert(2);
+        policy.onInsert(3);
+
+        policy.onAccess(1);
+        policy.onAccess(1);
+        policy.onAccess(3);
+
+        assertThat(policy.onInsert(4)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictOldestAmongEquallyFrequentKeys() {
+        var policy = new LfuEvictionPolicy<Integer>(3);
+        policy.onInsert(1);
+        policy.onInsert(2);
+        policy.onInsert(3);
+
+        assertThat(policy.onInsert(4)).isEqualTo(1);
+        assertThat(policy.onInsert(5)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldChooseVictimBeforeAddingNewKey() {
+        var policy = new LfuEvictionPolicy<Integer>(2);
+        policy.onInsert(1);
+        policy.onAccess(1);
+        policy.onInsert(2);
+        policy.onAccess(2);
+
+        assertThat(policy.onInsert(3)).isEqualTo(1);
+        assertThat(policy.onInsert(4)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRecalculateMinFrequencyAfterRemove() {
+        var policy = new LfuEvictionPolicy<Integer>(2);
+        policy.onInsert(1);
+        policy.onAccess(1);
+        policy.onInsert(2);
+
+        policy.onRemove(2);
+
+        assertThat(policy.onInsert(3)).isNull();
+        assertThat(policy.onInsert(4)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaximumSize() {
+        assertThatThrownBy(() -> new LfuEvictionPolicy<Integer>(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
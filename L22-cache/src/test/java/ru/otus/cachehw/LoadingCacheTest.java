@@ -0,0 +1,199 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadingCacheTest {
+    private static final long AWAIT_TIMEOUT_MS = 5_000;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    // значение - ключ и номер загрузки, по нему видно, какой загрузкой получено значение
+    private final CacheLoader<Integer, String> loader = key -> key + "_v" + loads.incrementAndGet();
+
+    @Test
+    void shouldLoadOnMissAndServeNextGetFromCache() {
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), loader).build()) {
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+
+            assertThat(cache.loadCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLoadsOfSameKey() throws Exception {
+        var threads = 8;
+        var release = new CountDownLatch(1);
+        CacheLoader<Integer, String> slowLoader = key -> {
+            release.await();
+            return loader.load(key);
+        };
+        var executor = Executors.newFixedThreadPool(threads);
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), slowLoader).build()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (var idx = 0; idx < threads; idx++) {
+                results.add(executor.submit(() -> cache.get(1)));
+            }
+            awaitCondition(() -> cache.coalescedLoadCount() == threads - 1);
+            release.countDown();
+
+            for (var result : results) {
+                assertThat(result.get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isEqualTo("1_v1");
+            }
+            assertThat(cache.loadCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldServeStaleValueAndRefreshItInBackground() throws InterruptedException {
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), loader)
+                .refreshAfterWrite(Duration.ofMillis(50))
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build()) {
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+            Thread.sleep(100);
+
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+            awaitCondition(() -> "1_v2".equals(cache.get(1)));
+            assertThat(cache.refreshCount()).isGreaterThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldLoadSynchronouslyAfterExpire() throws InterruptedException {
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), loader)
+                .refreshAfterWrite(Duration.ofMillis(50))
+                .expireAfterWrite(Duration.ofMillis(50))
+                .build()) {
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+            Thread.sleep(100);
+
+            assertThat(cache.get(1)).isEqualTo("1_v2");
+            assertThat(cache.refreshCount()).isZero();
+        }
+    }
+
+    @Test
+    void shouldLoadAllMissingKeysInOneCall() {
+        var loadAllCalls = new CopyOnWriteArrayList<List<Integer>>();
+        var batchLoader = new CacheLoader<Integer, String>() {
+            @Override
+            public String load(Integer key) {
+                throw new UnsupportedOperationException("only loadAll is expected");
+            }
+
+            @Override
+            public Map<Integer, String> loadAll(Collection<Integer> keys) {
+                loadAllCalls.add(keys.stream().sorted().toList());
+                Map<Integer, String> result = new HashMap<>();
+                // для ключа 3 данных нет
+                keys.stream().filter(key -> key != 3).forEach(key -> result.put(key, "loaded_" + key));
+                return result;
+            }
+        };
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), batchLoader).build()) {
+            cache.put(1, "cached_1");
+
+            var values = cache.getAll(List.of(1, 2, 3, 4));
+
+            assertThat(values).containsOnly(
+                    Map.entry(1, "cached_1"), Map.entry(2, "loaded_2"), Map.entry(4, "loaded_4"));
+            assertThat(loadAllCalls).containsExactly(List.of(2, 3, 4));
+            assertThat(cache.get(2)).isEqualTo("loaded_2");
+        }
+    }
+
+    @Test
+    void shouldNotCacheMissingValue() {
+        CacheLoader<Integer, String> emptyLoader = key -> {
+            loads.incrementAndGet();
+            return null;
+        };
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), emptyLoader).build()) {
+            assertThat(cache.get(1)).isNull();
+            assertThat(cache.get(1)).isNull();
+
+            assertThat(loads.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldWrapLoaderErrorAndRetryOnNextGet() {
+        var failures = new AtomicInteger(1);
+        CacheLoader<Integer, String> flakyLoader = key -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("source is unavailable");
+            }
+            return loader.load(key);
+        };
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), flakyLoader).build()) {
+            assertThatThrownBy(() -> cache.get(1))
+                    .isInstanceOf(CacheLoaderException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+
+            assertThat(cache.get(1)).isEqualTo("1_v1");
+        }
+    }
+
+    @Test
+    void shouldWriteBehindLatestValuesInOneBatchOnClose() {
+        var batches = new CopyOnWriteArrayList<Map<Integer, String>>();
+        var cache = new LoadingCache.Builder<>(newDelegate(), loader)
+                .writeBehind(batches::add, Duration.ofHours(1))
+                .build();
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(1, "uno");
+        cache.put(3, "three");
+        cache.remove(3);
+
+        cache.close();
+
+        assertThat(batches).containsExactly(Map.of(1, "uno", 2, "two"));
+    }
+
+    @Test
+    void shouldWriteBehindPeriodically() throws InterruptedException {
+        var batches = new CopyOnWriteArrayList<Map<Integer, String>>();
+        try (var cache = new LoadingCache.Builder<>(newDelegate(), loader)
+                .writeBehind(batches::add, Duration.ofMillis(20))
+                .build()) {
+            cache.put(1, "one");
+
+            awaitCondition(() -> !batches.isEmpty());
+            assertThat(batches.get(0)).isEqualTo(Map.of(1, "one"));
+        }
+    }
+
+    private static MyCache<Integer, String> newDelegate() {
+        return new MyCache<>(100, EvictionPolicyType.LRU);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition was not met in " + AWAIT_TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LruEvictionPolicyTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedKey() {
+        var policy = new LruEvictionPolicy<Integer>(3);
+        assertThat(policy.onInsert(1)).isNull();
+        assertThat(policy.onInsert(2)).isNull();
+        assertThat(policy.onInsert(3)).isNull();
+
+        policy.onAccess(1);
+
+        assertThat(policy.onInsert(4)).isEqualTo(2);
+        assertThat(policy.onInsert(5)).isEqualTo(3);
+        assertThat(policy.onInsert(6)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetRemovedKey() {
+        var policy = new LruEvictionPolicy<Integer>(2);
+        policy.onInsert(1);
+        policy.onInsert(2);
+
+        policy.onRemove(1);
+
+        assertThat(policy.onInsert(3)).isNull();
+        assertThat(policy.onInsert(4)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaximumSize() {
+        assertThatThrownBy(() -> new LruEvictionPolicy<Integer>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MyCacheTest {
+
+    @Test
+    void shouldReturnPutValueAndCountHitsAndMisses() {
+        var cache = new MyCache<Integer, String>();
+        cache.put(1, "one");
+
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(cache.get(2)).isNull();
+
+        var stats = cache.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.evictionCount()).isZero();
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldEvictByPolicyAndNotifyListeners() {
+        var cache = new MyCache<Integer, String>(2, EvictionPolicyType.LRU);
+        var events = new ArrayList<String>();
+        cache.addListener((key, value, action) -> events.add(action + ":" + key + "=" + value));
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(cache.stats().evictionCount()).isEqualTo(1);
+        assertThat(events).containsExactly("put:1=one", "put:2=two", "put:3=three", "evict:2=two");
+    }
+
+    @Test
+    void shouldReplaceValueWithoutEviction() {
+        var cache = new MyCache<Integer, String>(2, EvictionPolicyType.LFU);
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        cache.put(1, "uno");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1)).isEqualTo("uno");
+        assertThat(cache.stats().evictionCount()).isZero();
+    }
+
+    @Test
+    void shouldNotifyAboutRemoveOnlyWhenKeyExisted() {
+        var cache = new MyCache<Integer, String>();
+        var events = new ArrayList<String>();
+        cache.put(1, "one");
+        cache.addListener((key, value, action) -> events.add(action + ":" + key));
+
+        cache.remove(1);
+        cache.remove(1);
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(events).containsExactly("remove:1");
+    }
+
+    @Test
+    void shouldKeepWorkingWhenListenerFails() {
+        var cache = new MyCache<Integer, String>();
+        HwListener<Integer, String> failingListener = (key, value, action) -> {
+            throw new IllegalStateException("listener failure");
+        };
+        var events = new ArrayList<String>();
+        cache.addListener(failingListener);
+        cache.addListener((key, value, action) -> events.add(action + ":" + key));
+
+        cache.put(1, "one");
+        cache.removeListener(failingListener);
+        cache.put(2, "two");
+
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(events).containsExactly("put:1", "put:2");
+    }
+
+    @ParameterizedTest
+    @EnumSource(EvictionPolicyType.class)
+    void shouldStayWithinMaximumSizeUnderConcurrentPutsAndGets(EvictionPolicyType policyType) throws Exception {
+        var maximumSize = 100;
+        var threads = 8;
+        var operationsPerThread = 20_000;
+        var cache = new MyCache<Integer, Integer>(maximumSize, policyType);
+        var evicted = new CopyOnWriteArrayList<Integer>();
+        cache.addListener((key, value, action) -> {
+            if (HwListener.ACTION_EVICT.equals(action)) {
+                evicted.add(key);
+            }
+        });
+        var gets = new AtomicLong();
+        var start = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (var idx = 0; idx < threads; idx++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (var operation = 0; operation < operationsPerThread; operation++) {
+                        var key = random.nextInt(maximumSize * 10);
+                        if (random.nextBoolean()) {
+                            cache.put(key, key);
+                        } else {
+                            var value = cache.get(key);
+                            gets.incrementAndGet();
+                            assertThat(value).isIn(null, key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var stats = cache.stats();
+        assertThat(cache.size()).isEqualTo(maximumSize);
+        assertThat(stats.requestCount()).isEqualTo(gets.get());
+        assertThat(stats.evictionCount()).isEqualTo(evicted.size());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReferenceCacheTest {
+
+    @Test
+    void shouldReturnPutValueAndCountHitsAndMisses() {
+        try (var cache = new ReferenceCache<Integer, String>(ValueReferenceType.SOFT)) {
+            var value = "one";
+            cache.put(1, value);
+
+            assertThat(cache.get(1)).isSameAs(value);
+            assertThat(cache.get(2)).isNull();
+            assertThat(cache.stats().hitCount()).isEqualTo(1);
+            assertThat(cache.stats().missCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldNotifyAboutRemove() {
+        try (var cache = new ReferenceCache<Integer, String>(ValueReferenceType.SOFT)) {
+            var events = new ArrayList<String>();
+            cache.put(1, "one");
+            cache.addListener((key, value, action) -> events.add(action + ":" + key + "=" + value));
+
+            cache.remove(1);
+            cache.remove(1);
+
+            assertThat(cache.size()).isZero();
+            assertThat(events).containsExactly("remove:1=one");
+        }
+    }
+
+    @Test
+    void shouldEvictWeakValueAfterGc() throws InterruptedException {
+        try (var cache = new ReferenceCache<Integer, StringBuilder>(ValueReferenceType.WEAK)) {
+            var evicted = new CountDownLatch(1);
+            cache.addListener((key, value, action) -> {
+                if (HwListener.ACTION_EVICT.equals(action) && value == null) {
+                    evicted.countDown();
+                }
+            });
+            // на значение нет сильных ссылок, кроме ссылки из кеша
+            cache.put(1, new StringBuilder("value"));
+
+            for (var attempt = 0; attempt < 50 && evicted.getCount() > 0; attempt++) {
+                System.gc();
+                evicted.await(100, TimeUnit.MILLISECONDS);
+            }
+
+            assertThat(evicted.getCount()).isZero();
+            assertThat(cache.get(1)).isNull();
+            assertThat(cache.size()).isZero();
+            assertThat(cache.stats().evictionCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldKeepStronglyReachableWeakValue() {
+        try (var cache = new ReferenceCache<Integer, StringBuilder>(ValueReferenceType.WEAK)) {
+            var value = new StringBuilder("value");
+            cache.put(1, value);
+
+            System.gc();
+
+            assertThat(cache.get(1)).isSameAs(value);
+        }
+    }
+
+    @Test
+    void shouldShrinkByFractionAndNotifyAboutEviction() {
+        try (var cache = new ReferenceCache<Integer, String>(ValueReferenceType.SOFT)) {
+            var evicted = new CopyOnWriteArrayList<Integer>();
+            cache.addListener((key, value, action) -> {
+                if (HwListener.ACTION_EVICT.equals(action)) {
+                    evicted.add(key);
+                }
+            });
+            IntStream.range(0, 10).forEach(key -> cache.put(key, "value_" + key));
+
+            var removed = cache.shrink(0.25);
+
+            assertThat(removed).isEqualTo(3);
+            assertThat(cache.size()).isEqualTo(7);
+            assertThat(evicted).hasSize(3).doesNotHaveDuplicates();
+            assertThat(cache.stats().evictionCount()).isEqualTo(3);
+            evicted.forEach(key -> assertThat(cache.get(key)).isNull());
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidShrinkFraction() {
+        try (var cache = new ReferenceCache<Integer, String>(ValueReferenceType.SOFT)) {
+            assertThatThrownBy(() -> cache.shrink(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
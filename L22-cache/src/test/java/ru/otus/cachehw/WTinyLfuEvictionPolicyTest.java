@@ -0,0 +1,53 @@
+package ru.otus.cachehw;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WTinyLfuEvictionPolicyTest {
+    // окно - 1 ключ, основная область - 99
+    private static final int MAXIMUM_SIZE = 100;
+
+    private WTinyLfuEvictionPolicy<Integer> policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new WTinyLfuEvictionPolicy<>(MAXIMUM_SIZE);
+        // ключи 0..98 уходят из окна в основную область, 99 остается в окне
+        IntStream.range(0, MAXIMUM_SIZE).forEach(key -> assertThat(policy.onInsert(key)).isNull());
+    }
+
+    @Test
+    void shouldRejectCandidateThatIsNotMoreFrequentThanVictim() {
+        assertThat(policy.onInsert(MAXIMUM_SIZE)).isEqualTo(MAXIMUM_SIZE - 1);
+    }
+
+    @Test
+    void shouldAdmitCandidateMoreFrequentThanVictim() {
+        policy.onAccess(MAXIMUM_SIZE - 1);
+        policy.onAccess(MAXIMUM_SIZE - 1);
+
+        assertThat(policy.onInsert(MAXIMUM_SIZE)).isZero();
+    }
+
+    @Test
+    void shouldProtectAccessedKeyFromEviction() {
+        policy.onAccess(0);
+        policy.onAccess(MAXIMUM_SIZE - 1);
+        policy.onAccess(MAXIMUM_SIZE - 1);
+
+        assertThat(policy.onInsert(MAXIMUM_SIZE)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetRemovedKey() {
+        policy.onRemove(0);
+
+        // в основной области появилось место, кандидат из окна принимается без сравнения частот
+        assertThat(policy.onInsert(MAXIMUM_SIZE)).isNull();
+        assertThat(policy.onInsert(MAXIMUM_SIZE + 1)).isEqualTo(MAXIMUM_SIZE);
+    }
+}
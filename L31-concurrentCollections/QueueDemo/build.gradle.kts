@@ -10,5 +10,7 @@ dependencies {
     testImplementation ("org.assertj:assertj-core")
     testImplementation ("org.mockito:mockito-core")
     testImplementation ("org.mockito:mockito-junit-jupiter")
+    testImplementation ("org.openjdk.jmh:jmh-core")
+    testAnnotationProcessor ("org.openjdk.jmh:jmh-generator-annprocess")
 }
 
@@ -1,29 +1,36 @@
 package ru.otus;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.api.OverflowPolicy;
 import ru.otus.lib.SensorDataBufferedWriterFake;
 import ru.otus.services.FakeSensorDataGenerator;
 import ru.otus.services.SensorDataProcessingFlowImpl;
-import ru.otus.services.SensorsDataQueueChannel;
+import ru.otus.services.SensorsDataRingBufferChannel;
 import ru.otus.services.SensorsDataServerImpl;
 import ru.otus.services.processors.SensorDataProcessorBuffered;
 import ru.otus.services.processors.SensorDataProcessorCommon;
 import ru.otus.services.processors.SensorDataProcessorErrors;
 import ru.otus.services.processors.SensorDataProcessorRoom;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 public class Main {
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
     private static final String ALL_ROOMS_BINDING = "*";
     private static final String ROOM_NAME_BINDING = "Комната: 4";
     private static final int BUFFER_SIZE = 15;
+    private static final Duration BUFFER_MAX_LATENCY = Duration.ofSeconds(3);
     private static final int SENSORS_COUNT = 4;
 
-    private static final int SENSORS_DATA_QUEUE_CAPACITY = 1000;
+    private static final int SENSORS_DATA_QUEUE_CAPACITY = 1024;
+    private static final int DATA_PROCESS_LANES_COUNT = 2;
 
     public static void main(String[] args) throws InterruptedException {
 
-        // канал для передачи данных
-        var sensorsDataChannel = new SensorsDataQueueChannel(SENSORS_DATA_QUEUE_CAPACITY);
+        // канал для передачи данных: при переполнении отправитель ждет, данные не теряются
+        var sensorsDataChannel = new SensorsDataRingBufferChannel(SENSORS_DATA_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
 
         // получатель данных
         var sensorsDataServer = new SensorsDataServerImpl(sensorsDataChannel);
@@ -32,14 +39,14 @@ public class Main {
         var fakeSensorDataGenerator = new FakeSensorDataGenerator(sensorsDataServer, SENSORS_COUNT);
 
         // "насос" данных
-        var sensorDataProcessingFlow = new SensorDataProcessingFlowImpl(sensorsDataChannel);
+        var sensorDataProcessingFlow = new SensorDataProcessingFlowImpl(sensorsDataChannel, DATA_PROCESS_LANES_COUNT);
 
         // подписка на данные
         sensorDataProcessingFlow.bindProcessor(ALL_ROOMS_BINDING, new SensorDataProcessorCommon());
         sensorDataProcessingFlow.bindProcessor(ALL_ROOMS_BINDING, new SensorDataProcessorErrors());
         sensorDataProcessingFlow.bindProcessor(ROOM_NAME_BINDING, new SensorDataProcessorRoom(ROOM_NAME_BINDING));
         sensorDataProcessingFlow.bindProcessor(ALL_ROOMS_BINDING, new SensorDataProcessorBuffered(BUFFER_SIZE,
-                new SensorDataBufferedWriterFake()));
+                new SensorDataBufferedWriterFake(), BUFFER_MAX_LATENCY));
 
         fakeSensorDataGenerator.start();
         sensorDataProcessingFlow.startProcessing();
@@ -48,5 +55,6 @@ public class Main {
 
         fakeSensorDataGenerator.stop();
         sensorDataProcessingFlow.stopProcessing();
+        log.info("Состояние линий обработки: {}", sensorDataProcessingFlow.laneMetrics());
     }
 }
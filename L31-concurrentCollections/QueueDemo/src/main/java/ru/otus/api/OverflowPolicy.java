@@ -0,0 +1,19 @@
+package ru.otus.api;
+
+/**
+ * Что делать с новым показанием, если канал переполнен.
+ */
+public enum OverflowPolicy {
+    /**
+     * Отбросить новое показание.
+     */
+    DROP_NEWEST,
+    /**
+     * Отбросить самое старое показание в канале и положить новое.
+     */
+    DROP_OLDEST,
+    /**
+     * Ждать, пока в канале освободится место: отправитель притормаживает (backpressure).
+     */
+    BLOCK
+}
@@ -2,10 +2,22 @@ package ru.otus.api;
 
 
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 
 public interface SensorDataProcessor {
     void process(SensorData data);
 
+    /**
+     * Обработка пачки показаний, в этом виде их передает поток обработки.
+     * По умолчанию пачка обходится по строкам и каждое показание передается в {@link #process(SensorData)},
+     * процессоры, которым важна скорость, работают с колонками пачки напрямую.
+     */
+    default void processBatch(SensorDataBatch batch) {
+        for (var idx = 0; idx < batch.size(); idx++) {
+            process(batch.toSensorData(idx));
+        }
+    }
+
     default void onProcessingEnd() {
     }
 }
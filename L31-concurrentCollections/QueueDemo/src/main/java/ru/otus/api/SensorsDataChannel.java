@@ -2,6 +2,7 @@ package ru.otus.api;
 
 import ru.otus.api.model.SensorData;
 
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
 public interface SensorsDataChannel {
@@ -10,4 +11,24 @@ public interface SensorsDataChannel {
     boolean isEmpty();
 
     SensorData take(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Ждет первое показание не дольше timeout, затем без ожидания забирает все,
+     * что уже есть в канале, но не больше maxBatchSize.
+     *
+     * @return количество показаний, добавленных в batch
+     */
+    default int takeBatch(Collection<? super SensorData> batch, int maxBatchSize, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        var sensorData = take(timeout, unit);
+        var count = 0;
+        while (sensorData != null) {
+            batch.add(sensorData);
+            if (++count == maxBatchSize) {
+                break;
+            }
+            sensorData = take(0, unit);
+        }
+        return count;
+    }
 }
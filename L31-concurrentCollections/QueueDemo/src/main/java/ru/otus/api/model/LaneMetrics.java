@@ -0,0 +1,11 @@
+package ru.otus.api.model;
+
+/**
+ * Состояние одной линии обработки показаний.
+ *
+ * @param queueDepth    сколько показаний сейчас ждут обработки
+ * @param maxQueueDepth наибольшая глубина очереди с момента старта
+ * @param processed     сколько показаний обработано
+ */
+public record LaneMetrics(int lane, int queueDepth, int maxQueueDepth, long processed) {
+}
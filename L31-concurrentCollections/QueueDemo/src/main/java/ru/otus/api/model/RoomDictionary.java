@@ -0,0 +1,44 @@
+package ru.otus.api.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словарь комнат: каждой комнате выдается постоянный номер, чтобы в {@link SensorDataBatch}
+ * хранить int, а не ссылку на строку. Чтение без блокировок, регистрация новой комнаты синхронизирована.
+ */
+public class RoomDictionary {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private int count;
+
+    public int idOf(String room) {
+        var id = ids.get(room);
+        return id != null ? id : register(room);
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String room) {
+        var existingId = ids.get(room);
+        if (existingId != null) {
+            return existingId;
+        }
+        var id = count++;
+        var currentNames = names;
+        if (id == currentNames.length) {
+            currentNames = Arrays.copyOf(currentNames, currentNames.length * 2);
+        }
+        currentNames[id] = room;
+        names = currentNames;
+        ids.put(room, id);
+        return id;
+    }
+}
@@ -2,6 +2,7 @@ package ru.otus.api.model;
 
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 public class SensorData {
     private final LocalDateTime measurementTime;
@@ -26,6 +27,24 @@ public class SensorData {
         return value;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (SensorData) o;
+        return Objects.equals(measurementTime, that.measurementTime) && Objects.equals(room, that.room)
+                && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(measurementTime, room, value);
+    }
+
     @Override
     public String toString() {
         return "SensorData{" +
@@ -0,0 +1,214 @@
+package ru.otus.api.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Пачка показаний в колоночном виде: время, значение и комната каждого показания лежат
+ * в примитивных массивах, поэтому на показание не создается ни одного объекта.
+ * Ошибка датчика хранится как NaN, отсутствующее значение (null в {@link SensorData}) отмечается отдельно:
+ * процессоры по-разному обрабатывают null и NaN, и {@link #toSensorData(int)} должен вернуть то же, что было передано. Время - наносекунды от эпохи, LocalDateTime трактуется как UTC.
+ * Пачку можно переиспользовать через {@link #clear()}. Не потокобезопасна.
+ */
+public class SensorDataBatch {
+    private final RoomDictionary rooms;
+    private long[] measurementNanos;
+    private double[] values;
+    private boolean[] missing;
+    private int[] roomIds;
+    private int size;
+
+    public SensorDataBatch(RoomDictionary rooms, int initialCapacity) {
+        this.rooms = rooms;
+        this.measurementNanos = new long[initialCapacity];
+        this.values = new double[initialCapacity];
+        this.missing = new boolean[initialCapacity];
+        this.roomIds = new int[initialCapacity];
+    }
+
+    public void add(long measurementNanos, int roomId, double value) {
+        add(measurementNanos, roomId, value, false);
+    }
+
+    public void addMissing(long measurementNanos, int roomId) {
+        add(measurementNanos, roomId, Double.NaN, true);
+    }
+
+    /**
+     * Копирует показание idx из другой пачки; номер комнаты переводится, если у пачек разные словари.
+     */
+    public void add(SensorDataBatch other, int idx) {
+        var roomId = other.rooms == rooms ? other.roomId(idx) : rooms.idOf(other.room(idx));
+        add(other.measurementNanos(idx), roomId, other.value(idx), other.isMissing(idx));
+    }
+
+    public void add(SensorData data) {
+        var measurementNanos = toEpochNanos(data.getMeasurementTime());
+        var roomId = rooms.idOf(data.getRoom());
+        if (data.getValue() == null) {
+            addMissing(measurementNanos, roomId);
+        } else {
+            add(measurementNanos, roomId, data.getValue());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long measurementNanos(int idx) {
+        return measurementNanos[checkIndex(idx)];
+    }
+
+    public LocalDateTime measurementTime(int idx) {
+        return fromEpochNanos(measurementNanos(idx));
+    }
+
+    /**
+     * Для отсутствующего значения возвращает NaN, отличить его от ошибки можно через {@link #isMissing(int)}.
+     */
+    public double value(int idx) {
+        return values[checkIndex(idx)];
+    }
+
+    public boolean isMissing(int idx) {
+        return missing[checkIndex(idx)];
+    }
+
+    public boolean isError(int idx) {
+        return !isMissing(idx) && Double.isNaN(value(idx));
+    }
+
+    public int roomId(int idx) {
+        return roomIds[checkIndex(idx)];
+    }
+
+    public String room(int idx) {
+        return rooms.nameOf(roomId(idx));
+    }
+
+    public RoomDictionary rooms() {
+        return rooms;
+    }
+
+    /**
+     * Устойчивая сортировка по времени измерения, как List.sort для {@link SensorData}.
+     * Уже упорядоченная пачка (обычный случай) не переставляется.
+     */
+    public void sortByMeasurementTime() {
+        if (isSortedByMeasurementTime()) {
+            return;
+        }
+        var order = new int[size];
+        for (var idx = 0; idx < size; idx++) {
+            order[idx] = idx;
+        }
+        mergeSort(order, new int[size], 0, size);
+
+        var sortedNanos = new long[measurementNanos.length];
+        var sortedValues = new double[values.length];
+        var sortedMissing = new boolean[missing.length];
+        var sortedRoomIds = new int[roomIds.length];
+        for (var idx = 0; idx < size; idx++) {
+            var from = order[idx];
+            sortedNanos[idx] = measurementNanos[from];
+            sortedValues[idx] = values[from];
+            sortedMissing[idx] = missing[from];
+            sortedRoomIds[idx] = roomIds[from];
+        }
+        measurementNanos = sortedNanos;
+        values = sortedValues;
+        missing = sortedMissing;
+        roomIds = sortedRoomIds;
+    }
+
+    /**
+     * Показание в объектном виде, для кода, который работает с {@link SensorData}.
+     */
+    public SensorData toSensorData(int idx) {
+        return new SensorData(measurementTime(idx), room(idx), isMissing(idx) ? null : value(idx));
+    }
+
+    public List<SensorData> toSensorDataList() {
+        List<SensorData> result = new ArrayList<>(size);
+        for (var idx = 0; idx < size; idx++) {
+            result.add(toSensorData(idx));
+        }
+        return result;
+    }
+
+    public static long toEpochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    public static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private int checkIndex(int idx) {
+        if (idx >= size) {
+            throw new IndexOutOfBoundsException("index: " + idx + ", size: " + size);
+        }
+        return idx;
+    }
+
+    private void add(long measurementNanos, int roomId, double value, boolean missing) {
+        if (size == values.length) {
+            grow();
+        }
+        this.measurementNanos[size] = measurementNanos;
+        this.roomIds[size] = roomId;
+        this.values[size] = value;
+        this.missing[size] = missing;
+        size++;
+    }
+
+    private boolean isSortedByMeasurementTime() {
+        for (var idx = 1; idx < size; idx++) {
+            if (measurementNanos[idx] < measurementNanos[idx - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void mergeSort(int[] order, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        var middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle);
+        mergeSort(order, buffer, middle, to);
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (var idx = from; idx < to; idx++) {
+            // при равном времени первым идет показание из левой половины - сортировка устойчива
+            if (right >= to || (left < middle && measurementNanos[buffer[left]] <= measurementNanos[buffer[right]])) {
+                order[idx] = buffer[left++];
+            } else {
+                order[idx] = buffer[right++];
+            }
+        }
+    }
+
+    private void grow() {
+        var newCapacity = Math.max(values.length * 2, 16);
+        measurementNanos = Arrays.copyOf(measurementNanos, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+        missing = Arrays.copyOf(missing, newCapacity);
+        roomIds = Arrays.copyOf(roomIds, newCapacity);
+    }
+}
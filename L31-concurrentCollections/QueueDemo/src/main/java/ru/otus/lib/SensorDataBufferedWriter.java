@@ -2,9 +2,17 @@ package ru.otus.lib;
 
 
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 
 import java.util.List;
 
 public interface SensorDataBufferedWriter {
     void writeBufferedData(List<SensorData> bufferedData);
+
+    /**
+     * Запись пачки в колоночном виде. По умолчанию пачка превращается в список {@link SensorData}.
+     */
+    default void writeBufferedBatch(SensorDataBatch bufferedData) {
+        writeBufferedData(bufferedData.toSensorDataList());
+    }
 }
@@ -3,6 +3,7 @@ package ru.otus.lib;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,4 +16,15 @@ public class SensorDataBufferedWriterFake implements SensorDataBufferedWriter {
         var dataToWrite = bufferedData.stream().map(SensorData::toString).collect(Collectors.joining("\n"));
         log.info("Как будто куда-то записываем пачку данных: \n{}", dataToWrite);
     }
+
+    @Override
+    public void writeBufferedBatch(SensorDataBatch bufferedData) {
+        var dataToWrite = new StringBuilder();
+        for (var idx = 0; idx < bufferedData.size(); idx++) {
+            dataToWrite.append(bufferedData.measurementTime(idx)).append(' ')
+                    .append(bufferedData.room(idx)).append(' ')
+                    .append(bufferedData.isMissing(idx) ? null : bufferedData.value(idx)).append('\n');
+        }
+        log.info("Как будто куда-то записываем пачку данных: \n{}", dataToWrite);
+    }
 }
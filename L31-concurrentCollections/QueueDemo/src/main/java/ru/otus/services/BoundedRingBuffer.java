@@ -0,0 +1,87 @@
+package ru.otus.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный неблокирующий кольцевой буфер (алгоритм Д. Вьюкова).
+ * У каждой ячейки есть номер последовательности: по нему писатель понимает, что ячейка свободна,
+ * а читатель - что в ней уже лежит опубликованный элемент. Писатели и читатели захватывают позицию
+ * через CAS, поэтому буфер корректен для нескольких писателей и нескольких читателей.
+ * Емкость должна быть степенью двойки: позиция в массиве считается маской, а молча увеличенный
+ * буфер держал бы больше показаний, чем было задано.
+ */
+class BoundedRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    BoundedRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30) || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two in [1, 2^30]: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (var idx = 0; idx < capacity; idx++) {
+            sequences.set(idx, idx);
+        }
+    }
+
+    boolean offer(E element) {
+        var position = tail.get();
+        while (true) {
+            var idx = (int) (position & mask);
+            var diff = sequences.get(idx) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(idx, element);
+                    sequences.set(idx, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    E poll() {
+        var position = head.get();
+        while (true) {
+            var idx = (int) (position & mask);
+            var diff = sequences.get(idx) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    var element = elements.get(idx);
+                    elements.lazySet(idx, null);
+                    sequences.set(idx, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    int size() {
+        var size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.otus.services;
+
+import ru.otus.api.model.LaneMetrics;
+import ru.otus.api.model.SensorDataBatch;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Однопоточная линия обработки: пачки показаний обрабатываются строго в порядке поступления.
+ */
+class ProcessingLane {
+    private final int index;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+
+    ProcessingLane(int index) {
+        this.index = index;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "sensor-data-lane-" + index));
+    }
+
+    void submit(SensorDataBatch batch, Consumer<SensorDataBatch> handler) {
+        var depth = queueDepth.addAndGet(batch.size());
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+        executor.execute(() -> {
+            try {
+                handler.accept(batch);
+            } finally {
+                queueDepth.addAndGet(-batch.size());
+                processed.add(batch.size());
+            }
+        });
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    LaneMetrics metrics() {
+        return new LaneMetrics(index, queueDepth.get(), maxQueueDepth.get(), processed.sum());
+    }
+}
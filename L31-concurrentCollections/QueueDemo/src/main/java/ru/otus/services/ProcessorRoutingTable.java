@@ -0,0 +1,71 @@
+package ru.otus.services;
+
+import ru.otus.api.SensorDataProcessor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Неизменяемая таблица маршрутизации "комната -> процессоры".
+ * При каждой привязке процессора таблица строится заново (copy-on-write),
+ * поэтому на горячем пути обработки нет ни блокировок, ни выделения памяти:
+ * для уже встречавшейся комнаты это один поиск в map.
+ * Процессоры, привязанные к "*", идут первыми, остальные - в порядке привязки.
+ * <p>
+ * Кэш маршрутов ограничен MAX_CACHED_ROUTES комнатами: если комнаты постоянно появляются новые,
+ * маршруты сверх лимита вычисляются при каждом показании, но память не растет.
+ */
+class ProcessorRoutingTable {
+    static final String ALL_ROOMS_PATTERN = "*";
+    static final int MAX_CACHED_ROUTES = 4096;
+    static final ProcessorRoutingTable EMPTY = new ProcessorRoutingTable(List.of());
+
+    private final List<ProcessorBinding> bindings;
+    private final RoomPatternTrie<ProcessorBinding> patterns = new RoomPatternTrie<>();
+    private final Map<String, SensorDataProcessor[]> routes = new ConcurrentHashMap<>();
+
+    private ProcessorRoutingTable(List<ProcessorBinding> bindings) {
+        this.bindings = bindings;
+        bindings.forEach(binding -> patterns.add(binding.roomPattern(), binding));
+        // для буквальных шаблонов маршруты готовы заранее, прочие комнаты разрешаются при первом показании
+        bindings.stream().map(ProcessorBinding::roomPattern).filter(RoomPatternTrie::isLiteral)
+                .forEach(room -> routes.computeIfAbsent(room, this::resolve));
+    }
+
+    ProcessorRoutingTable withBinding(String roomPattern, SensorDataProcessor processor) {
+        var newBindings = new ArrayList<>(bindings);
+        newBindings.add(new ProcessorBinding(bindings.size(), roomPattern, processor));
+        return new ProcessorRoutingTable(List.copyOf(newBindings));
+    }
+
+    SensorDataProcessor[] processorsFor(String room) {
+        var processors = routes.get(room);
+        if (processors != null) {
+            return processors;
+        }
+        // размер проверяется без блокировки, поэтому лимит может быть превышен на число конкурирующих потоков
+        return routes.size() < MAX_CACHED_ROUTES ? routes.computeIfAbsent(room, this::resolve) : resolve(room);
+    }
+
+    int cachedRoutesCount() {
+        return routes.size();
+    }
+
+    List<SensorDataProcessor> allProcessors() {
+        return bindings.stream().map(ProcessorBinding::processor).distinct().toList();
+    }
+
+    private SensorDataProcessor[] resolve(String room) {
+        return patterns.match(room).stream()
+                .sorted(Comparator.comparing((ProcessorBinding binding) -> !ALL_ROOMS_PATTERN.equals(binding.roomPattern()))
+                        .thenComparingInt(ProcessorBinding::order))
+                .map(ProcessorBinding::processor)
+                .toArray(SensorDataProcessor[]::new);
+    }
+
+    private record ProcessorBinding(int order, String roomPattern, SensorDataProcessor processor) {
+    }
+}
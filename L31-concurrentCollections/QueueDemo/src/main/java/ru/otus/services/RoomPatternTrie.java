@@ -0,0 +1,91 @@
+package ru.otus.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Префиксное дерево шаблонов комнат.
+ * В шаблоне '*' означает любую (в том числе пустую) последовательность символов, '?' - ровно один символ,
+ * остальные символы сравниваются буквально: "*", "Комната: *", "Комната: ?", "Комната: 4".
+ * Общие префиксы шаблонов хранятся один раз, поэтому сопоставление комнаты со всеми шаблонами
+ * обходит каждый общий префикс один раз, а не по разу на шаблон.
+ * Для буквальных шаблонов и '?' это один проход по имени комнаты, а '*' перебирает все возможные
+ * продолжения, так что с ним сопоставление возвращается назад по имени.
+ */
+class RoomPatternTrie<T> {
+    private static final char ANY_SEQUENCE = '*';
+    private static final char ANY_CHAR = '?';
+
+    private final Node<T> root = new Node<>();
+
+    static boolean isLiteral(String pattern) {
+        return pattern.indexOf(ANY_SEQUENCE) < 0 && pattern.indexOf(ANY_CHAR) < 0;
+    }
+
+    void add(String pattern, T value) {
+        var node = root;
+        for (var idx = 0; idx < pattern.length(); idx++) {
+            var ch = pattern.charAt(idx);
+            if (ch == ANY_SEQUENCE) {
+                if (node.anySequence == null) {
+                    node.anySequence = new Node<>();
+                }
+                node = node.anySequence;
+            } else if (ch == ANY_CHAR) {
+                if (node.anyChar == null) {
+                    node.anyChar = new Node<>();
+                }
+                node = node.anyChar;
+            } else {
+                node = node.children.computeIfAbsent(ch, k -> new Node<>());
+            }
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * @return значения всех шаблонов, которым соответствует room (каждый шаблон учитывается один раз)
+     */
+    List<T> match(String room) {
+        Set<Node<T>> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        match(root, room, 0, matched);
+        List<T> result = new ArrayList<>();
+        for (var node : matched) {
+            result.addAll(node.values);
+        }
+        return result;
+    }
+
+    private void match(Node<T> node, String room, int position, Set<Node<T>> matched) {
+        if (node.anySequence != null) {
+            for (var next = position; next <= room.length(); next++) {
+                match(node.anySequence, room, next, matched);
+            }
+        }
+        if (position == room.length()) {
+            if (!node.values.isEmpty()) {
+                matched.add(node);
+            }
+            return;
+        }
+        var child = node.children.get(room.charAt(position));
+        if (child != null) {
+            match(child, room, position + 1, matched);
+        }
+        if (node.anyChar != null) {
+            match(node.anyChar, room, position + 1, matched);
+        }
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        private Node<T> anySequence;
+        private Node<T> anyChar;
+    }
+}
@@ -6,33 +6,61 @@ import org.slf4j.LoggerFactory;
 import ru.otus.api.SensorDataProcessingFlow;
 import ru.otus.api.SensorDataProcessor;
 import ru.otus.api.SensorsDataChannel;
+import ru.otus.api.model.LaneMetrics;
+import ru.otus.api.model.RoomDictionary;
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 
+/**
+ * Показания раскладываются по однопоточным линиям обработки по хешу комнаты:
+ * показания одной комнаты всегда обрабатываются одной линией и в порядке поступления,
+ * а разные комнаты обрабатываются параллельно.
+ * Процессоры, привязанные к нескольким комнатам, должны быть потокобезопасны.
+ * <p>
+ * Линия получает показания колоночной пачкой ({@link SensorDataBatch}) и передает каждому процессору
+ * одной пачкой все показания, которые ему адресованы, сохраняя их порядок.
+ * <p>
+ * roomPattern в {@link #bindProcessor} - шаблон имени комнаты, см. {@link RoomPatternTrie}.
+ */
 public class SensorDataProcessingFlowImpl implements SensorDataProcessingFlow {
     private static final Logger log = LoggerFactory.getLogger(SensorDataProcessingFlowImpl.class);
     public static final int POLLING_TIMEOUT = 5;
     public static final int DATA_PROCESS_THREAD_POOL_SIZE = 1;
+    public static final int POLLING_BATCH_SIZE = 256;
+    private static final int LANES_TERMINATION_TIMEOUT = 30;
 
-    private final Map<String, List<SensorDataProcessor>> bindings = new ConcurrentHashMap<>();
+    private volatile ProcessorRoutingTable routingTable = ProcessorRoutingTable.EMPTY;
     private final AtomicBoolean pollingInProgress = new AtomicBoolean(false);
     private final ExecutorService pollingThreadPool = Executors.newFixedThreadPool(1);
-    private final ExecutorService dataProcessThreadPool = Executors.newFixedThreadPool(DATA_PROCESS_THREAD_POOL_SIZE);
+    private final ProcessingLane[] lanes;
+    private final RoomDictionary rooms = new RoomDictionary();
 
     private final SensorsDataChannel sensorsDataChannel;
 
     public SensorDataProcessingFlowImpl(SensorsDataChannel sensorsDataChannel) {
+        this(sensorsDataChannel, DATA_PROCESS_THREAD_POOL_SIZE);
+    }
+
+    public SensorDataProcessingFlowImpl(SensorsDataChannel sensorsDataChannel, int lanesCount) {
+        if (lanesCount <= 0) {
+            throw new IllegalArgumentException("lanesCount must be positive: " + lanesCount);
+        }
         this.sensorsDataChannel = sensorsDataChannel;
+        this.lanes = new ProcessingLane[lanesCount];
+        for (var idx = 0; idx < lanesCount; idx++) {
+            lanes[idx] = new ProcessingLane(idx);
+        }
     }
 
     @Override
@@ -47,19 +75,17 @@ public class SensorDataProcessingFlowImpl implements SensorDataProcessingFlow {
     }
 
     @Override
-    public void bindProcessor(String roomPattern, SensorDataProcessor processor) {
-        var roomPatternBindings = bindings.computeIfAbsent(roomPattern,
-                k -> new ArrayList<>());
-        roomPatternBindings.add(processor);
+    public synchronized void bindProcessor(String roomPattern, SensorDataProcessor processor) {
+        routingTable = routingTable.withBinding(roomPattern, processor);
     }
 
     private void pollQueue() {
+        List<SensorData> batch = new ArrayList<>(POLLING_BATCH_SIZE);
         while (pollingInProgress.get() || !sensorsDataChannel.isEmpty()) {
             try {
-                var sensorData = sensorsDataChannel.take(POLLING_TIMEOUT, TimeUnit.SECONDS);
-
-                if (sensorData != null) {
-                    dataProcessThreadPool.submit(() -> processData(sensorData));
+                if (sensorsDataChannel.takeBatch(batch, POLLING_BATCH_SIZE, POLLING_TIMEOUT, TimeUnit.SECONDS) > 0) {
+                    dispatch(batch);
+                    batch.clear();
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -69,25 +95,100 @@ public class SensorDataProcessingFlowImpl implements SensorDataProcessingFlow {
         doShutdown();
     }
 
-    private void processData(SensorData data) {
-        try {
-            var actualProcessors = new ArrayList<>(bindings.getOrDefault("*", new ArrayList<>()));
-            actualProcessors.addAll(bindings.getOrDefault(data.getRoom(), new ArrayList<>()));
-            for (var processor : actualProcessors) {
-                processor.process(data);
+    // одна задача на линию за пачку вместо задачи на каждое показание
+    private void dispatch(List<SensorData> batch) {
+        var laneBatches = new SensorDataBatch[lanes.length];
+        for (var sensorData : batch) {
+            var laneIdx = laneIndex(sensorData);
+            if (laneBatches[laneIdx] == null) {
+                laneBatches[laneIdx] = new SensorDataBatch(rooms, lanes.length == 1 ? batch.size() : 16);
+            }
+            laneBatches[laneIdx].add(sensorData);
+        }
+        for (var laneIdx = 0; laneIdx < lanes.length; laneIdx++) {
+            if (laneBatches[laneIdx] != null) {
+                lanes[laneIdx].submit(laneBatches[laneIdx], this::processBatch);
+            }
+        }
+    }
+
+    public List<LaneMetrics> laneMetrics() {
+        return Arrays.stream(lanes).map(ProcessingLane::metrics).toList();
+    }
+
+    private int laneIndex(SensorData data) {
+        return Math.floorMod(data.getRoom().hashCode(), lanes.length);
+    }
+
+    private void processBatch(SensorDataBatch batch) {
+        var currentRoutingTable = routingTable;
+        var commonProcessors = commonProcessors(currentRoutingTable, batch);
+        if (commonProcessors != null) {
+            // обычный случай: всем показаниям пачки нужны одни и те же процессоры, пачка передается как есть
+            for (var processor : commonProcessors) {
+                processBatch(processor, batch);
+            }
+            return;
+        }
+        Map<SensorDataProcessor, SensorDataBatch> processorBatches = new IdentityHashMap<>();
+        for (var idx = 0; idx < batch.size(); idx++) {
+            for (var processor : currentRoutingTable.processorsFor(batch.room(idx))) {
+                processorBatches.computeIfAbsent(processor, k -> new SensorDataBatch(rooms, batch.size()))
+                        .add(batch, idx);
+            }
+        }
+        processorBatches.forEach(this::processBatch);
+    }
+
+    private static SensorDataProcessor[] commonProcessors(ProcessorRoutingTable routingTable, SensorDataBatch batch) {
+        SensorDataProcessor[] common = null;
+        var lastRoomId = -1;
+        for (var idx = 0; idx < batch.size(); idx++) {
+            if (batch.roomId(idx) == lastRoomId) {
+                continue;
             }
+            lastRoomId = batch.roomId(idx);
+            var processors = routingTable.processorsFor(batch.room(idx));
+            if (common == null) {
+                common = processors;
+            } else if (!Arrays.equals(common, processors)) {
+                return null;
+            }
+        }
+        return common;
+    }
+
+    private void processBatch(SensorDataProcessor processor, SensorDataBatch batch) {
+        try {
+            processor.processBatch(batch);
         } catch (Exception e) {
             log.error("Ошибка в процессе обработки показаний датчика", e);
         }
     }
 
     private void doShutdown() {
-        bindings.values().stream().flatMap(Collection::stream)
-                .forEach(this::fireProcessorShutdownEvent);
-        dataProcessThreadPool.shutdown();
+        // сначала дорабатываем уже разложенные по линиям показания, потом сообщаем процессорам о завершении
+        for (var lane : lanes) {
+            lane.shutdown();
+        }
+        for (var lane : lanes) {
+            awaitLaneTermination(lane);
+        }
+        routingTable.allProcessors().forEach(this::fireProcessorShutdownEvent);
         pollingThreadPool.shutdown();
     }
 
+    private void awaitLaneTermination(ProcessingLane lane) {
+        try {
+            if (!lane.awaitTermination(LANES_TERMINATION_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Линия обработки не завершилась вовремя: {}", lane.metrics());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Ошибка в процессе ожидания завершения линии обработки", e);
+        }
+    }
+
     private void fireProcessorShutdownEvent(SensorDataProcessor processor) {
         try {
             processor.onProcessingEnd();
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import ru.otus.api.SensorsDataChannel;
 import ru.otus.api.model.SensorData;
 
+import java.util.Collection;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -36,4 +37,15 @@ public class SensorsDataQueueChannel implements SensorsDataChannel {
     public SensorData take(long timeout, TimeUnit unit) throws InterruptedException {
         return sensorsDataQueue.poll(timeout, unit);
     }
+
+    @Override
+    public int takeBatch(Collection<? super SensorData> batch, int maxBatchSize, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        var sensorData = sensorsDataQueue.poll(timeout, unit);
+        if (sensorData == null) {
+            return 0;
+        }
+        batch.add(sensorData);
+        return 1 + sensorsDataQueue.drainTo(batch, maxBatchSize - 1);
+    }
 }
@@ -0,0 +1,143 @@
+package ru.otus.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.api.OverflowPolicy;
+import ru.otus.api.SensorsDataChannel;
+import ru.otus.api.model.SensorData;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Канал показаний на неблокирующем кольцевом буфере.
+ * Отправители не берут блокировок; читатель, если канал пуст, паркуется и будится первым же показанием.
+ * Рассчитан на одного читателя (поток опроса в {@link SensorDataProcessingFlowImpl}).
+ * Емкость канала - степень двойки, другое значение отклоняется с IllegalArgumentException.
+ */
+public class SensorsDataRingBufferChannel implements SensorsDataChannel {
+    private static final Logger log = LoggerFactory.getLogger(SensorsDataRingBufferChannel.class);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final BoundedRingBuffer<SensorData> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile Thread waitingConsumer;
+
+    public SensorsDataRingBufferChannel(int sensorsDataQueueCapacity, OverflowPolicy overflowPolicy) {
+        this.buffer = new BoundedRingBuffer<>(sensorsDataQueueCapacity);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    }
+
+    @Override
+    public boolean push(SensorData sensorData) {
+        var pushResult = switch (overflowPolicy) {
+            case DROP_NEWEST -> pushOrDropNewest(sensorData);
+            case DROP_OLDEST -> pushAndDropOldest(sensorData);
+            case BLOCK -> pushOrWait(sensorData);
+        };
+        if (pushResult) {
+            var consumer = waitingConsumer;
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+            }
+        }
+        return pushResult;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+
+    @Override
+    public SensorData take(long timeout, TimeUnit unit) throws InterruptedException {
+        var sensorData = buffer.poll();
+        if (sensorData != null || !awaitData(unit.toNanos(timeout))) {
+            return sensorData;
+        }
+        return buffer.poll();
+    }
+
+    @Override
+    public int takeBatch(Collection<? super SensorData> batch, int maxBatchSize, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (buffer.isEmpty() && !awaitData(unit.toNanos(timeout))) {
+            return 0;
+        }
+        var count = 0;
+        SensorData sensorData;
+        while (count < maxBatchSize && (sensorData = buffer.poll()) != null) {
+            batch.add(sensorData);
+            count++;
+        }
+        return count;
+    }
+
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    private boolean pushOrDropNewest(SensorData sensorData) {
+        if (buffer.offer(sensorData)) {
+            return true;
+        }
+        droppedCount.increment();
+        log.warn("Очередь показаний переполнена, показание отброшено: {}", sensorData);
+        return false;
+    }
+
+    private boolean pushAndDropOldest(SensorData sensorData) {
+        while (!buffer.offer(sensorData)) {
+            var dropped = buffer.poll();
+            if (dropped != null) {
+                droppedCount.increment();
+                log.warn("Очередь показаний переполнена, отброшено самое старое показание: {}", dropped);
+            }
+        }
+        return true;
+    }
+
+    private boolean pushOrWait(SensorData sensorData) {
+        while (!buffer.offer(sensorData)) {
+            if (Thread.currentThread().isInterrupted()) {
+                droppedCount.increment();
+                log.warn("Ожидание места в очереди показаний прервано, показание отброшено: {}", sensorData);
+                return false;
+            }
+            LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * @return true, если в канале появились данные, false - если истек таймаут
+     */
+    private boolean awaitData(long timeoutNanos) throws InterruptedException {
+        var deadline = System.nanoTime() + timeoutNanos;
+        waitingConsumer = Thread.currentThread();
+        try {
+            // проверка после публикации waitingConsumer: отправитель, положивший данные раньше, нас уже не разбудит
+            while (buffer.isEmpty()) {
+                var remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return true;
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+}
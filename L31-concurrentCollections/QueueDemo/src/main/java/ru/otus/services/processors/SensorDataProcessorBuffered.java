@@ -4,39 +4,235 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.otus.lib.SensorDataBufferedWriter;
 import ru.otus.api.SensorDataProcessor;
+import ru.otus.api.model.RoomDictionary;
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 
-// Этот класс нужно реализовать
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Копит показания и пишет их пачками, отсортированными по времени измерения.
+ * Буфер колоночный ({@link SensorDataBatch}): показания, пришедшие пачкой, копируются по колонкам
+ * без создания объектов и отдаются писателю через {@link SensorDataBufferedWriter#writeBufferedBatch}.
+ * <p>
+ * Буферов два: показания добавляются в активный под короткой блокировкой, а flush подменяет его новым
+ * и пишет заполненный уже без этой блокировки, поэтому process не ждет окончания записи.
+ * Сами записи выполняются строго по одной.
+ * <p>
+ * Запись запускается при заполнении буфера, а если задан maxLatency - еще и по таймеру,
+ * чтобы показания редко отвечающей комнаты не лежали в буфере бесконечно.
+ * В этом режиме запись идет в отдельном потоке, а не в потоке обработки.
+ */
 public class SensorDataProcessorBuffered implements SensorDataProcessor {
     private static final Logger log = LoggerFactory.getLogger(SensorDataProcessorBuffered.class);
+    // сколько буферов может ждать записи, прежде чем новые показания начнут отбрасываться
+    private static final int MAX_PENDING_BUFFERS = 4;
 
     private final int bufferSize;
     private final SensorDataBufferedWriter writer;
+    private final Executor flushExecutor;
+    private final ScheduledExecutorService flushThread;
+    private final long maxLatencyNanos;
+
+    private final Lock bufferLock = new ReentrantLock();
+    private final Lock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final RoomDictionary rooms = new RoomDictionary();
+    private SensorDataBatch dataBuffer;
+    private long firstBufferedNanos;
+    private long lastFlushedMeasurementNanos = Long.MIN_VALUE;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder lateCount = new LongAdder();
 
     public SensorDataProcessorBuffered(int bufferSize, SensorDataBufferedWriter writer) {
         this.bufferSize = bufferSize;
         this.writer = writer;
+        this.dataBuffer = new SensorDataBatch(rooms, bufferSize);
+        this.flushThread = null;
+        this.flushExecutor = Runnable::run;
+        this.maxLatencyNanos = 0;
+    }
+
+    public SensorDataProcessorBuffered(int bufferSize, SensorDataBufferedWriter writer, Duration maxLatency) {
+        this.bufferSize = bufferSize;
+        this.writer = writer;
+        this.dataBuffer = new SensorDataBatch(rooms, bufferSize);
+        this.flushThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "sensor-data-buffer-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor = flushThread;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        var checkPeriodNanos = Math.max(maxLatencyNanos / 4, TimeUnit.MILLISECONDS.toNanos(1));
+        flushThread.scheduleAtFixedRate(this::flushIfExpired, checkPeriodNanos, checkPeriodNanos, TimeUnit.NANOSECONDS);
     }
 
     @Override
     public void process(SensorData data) {
-    /*
-        if (dataBuffer.size() >= bufferSize) {
-            flush();
+        boolean bufferFull;
+        bufferLock.lock();
+        try {
+            if (dataBuffer.size() >= bufferSize * MAX_PENDING_BUFFERS) {
+                droppedCount.increment();
+                log.warn("Буфер показаний переполнен, запись не успевает, показание отброшено: {}", data);
+                return;
+            }
+            markFirstBuffered();
+            dataBuffer.add(data);
+            bufferFull = dataBuffer.size() >= bufferSize;
+        } finally {
+            bufferLock.unlock();
+        }
+
+        if (bufferFull) {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public void processBatch(SensorDataBatch batch) {
+        boolean bufferFull;
+        var dropped = 0;
+        bufferLock.lock();
+        try {
+            var accepted = Math.min(batch.size(), Math.max(0, bufferSize * MAX_PENDING_BUFFERS - dataBuffer.size()));
+            if (accepted > 0) {
+                markFirstBuffered();
+            }
+            for (var idx = 0; idx < accepted; idx++) {
+                dataBuffer.add(batch, idx);
+            }
+            dropped = batch.size() - accepted;
+            bufferFull = dataBuffer.size() >= bufferSize;
+        } finally {
+            bufferLock.unlock();
+        }
+
+        if (dropped > 0) {
+            droppedCount.add(dropped);
+            log.warn("Буфер показаний переполнен, запись не успевает, отброшено показаний: {}", dropped);
+        }
+        if (bufferFull) {
+            requestFlush();
         }
-    */
     }
 
     public void flush() {
+        flushLock.lock();
         try {
-            //writer.writeBufferedData(bufferedData);
-        } catch (Exception e) {
-            log.error("Ошибка в процессе записи буфера", e);
+            var bufferedData = swapBuffer();
+            if (bufferedData.isEmpty()) {
+                return;
+            }
+            bufferedData.sortByMeasurementTime();
+            countLateData(bufferedData);
+            try {
+                writer.writeBufferedBatch(bufferedData);
+            } catch (Exception e) {
+                droppedCount.add(bufferedData.size());
+                log.error("Ошибка в процессе записи буфера", e);
+            }
+        } finally {
+            flushLock.unlock();
         }
     }
 
     @Override
     public void onProcessingEnd() {
+        if (flushThread != null) {
+            flushThread.shutdown();
+        }
         flush();
     }
+
+    /**
+     * Показания, потерянные из-за переполнения буфера или ошибки записи.
+     */
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Показания, измеренные раньше уже записанных: порядок по времени между пачками для них нарушен.
+     */
+    public long lateCount() {
+        return lateCount.sum();
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        if (flushThread != null && flushThread.isShutdown()) {
+            // после onProcessingEnd поток записи остановлен, пишем сами
+            flushRequested.set(false);
+            flush();
+            return;
+        }
+        try {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // поток записи успел остановиться между проверкой и постановкой задачи
+            flushRequested.set(false);
+            flush();
+        }
+    }
+
+    private void flushIfExpired() {
+        boolean expired;
+        bufferLock.lock();
+        try {
+            expired = !dataBuffer.isEmpty() && System.nanoTime() - firstBufferedNanos >= maxLatencyNanos;
+        } finally {
+            bufferLock.unlock();
+        }
+        if (expired) {
+            requestFlush();
+        }
+    }
+
+    private void markFirstBuffered() {
+        if (dataBuffer.isEmpty()) {
+            firstBufferedNanos = System.nanoTime();
+        }
+    }
+
+    // заполненный буфер целиком отдается писателю, процессор его больше не трогает
+    private SensorDataBatch swapBuffer() {
+        bufferLock.lock();
+        try {
+            var bufferedData = dataBuffer;
+            if (!bufferedData.isEmpty()) {
+                dataBuffer = new SensorDataBatch(rooms, bufferSize);
+            }
+            return bufferedData;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void countLateData(SensorDataBatch sortedData) {
+        for (var idx = 0; idx < sortedData.size(); idx++) {
+            if (sortedData.measurementNanos(idx) >= lastFlushedMeasurementNanos) {
+                break;
+            }
+            lateCount.increment();
+        }
+        lastFlushedMeasurementNanos = Math.max(lastFlushedMeasurementNanos,
+                sortedData.measurementNanos(sortedData.size() - 1));
+    }
 }
@@ -25,7 +25,6 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -54,8 +53,9 @@ class AppTest {
         randomGenerator = spy(RandomGenerator.class);
         fakeSensorDataGenerator = new FakeSensorDataGenerator(randomGenerator, sensorsDataServer,
                 SENSORS_COUNT);
-        sensorDataProcessorCommon = mock(SensorDataProcessorCommon.class);
-        sensorDataProcessorRoom = mock(SensorDataProcessorRoom.class);
+        // поток обработки вызывает processBatch, реализация по умолчанию передает показания в process
+        sensorDataProcessorCommon = spy(new SensorDataProcessorCommon());
+        sensorDataProcessorRoom = spy(new SensorDataProcessorRoom(ROOM_NAME_BINDING));
 
         sensorDataProcessingFlow.bindProcessor(ALL_ROOMS_BINDING, sensorDataProcessorCommon);
         sensorDataProcessingFlow.bindProcessor(ROOM_NAME_BINDING, sensorDataProcessorRoom);
@@ -0,0 +1,113 @@
+package ru.otus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.otus.api.model.RoomDictionary;
+import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Показание-объект против колоночной пачки: формирование пачки показаний и подсчет
+ * суммы корректных значений и числа ошибок. GCProfiler показывает выделение памяти на операцию.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class SensorDataBatchBenchmark {
+    private static final int ROOMS_COUNT = 100;
+    private final int readingsCount = 10_000;
+
+    private final RoomDictionary rooms = new RoomDictionary();
+    private String[] roomNames;
+    private int[] roomIds;
+    private double[] values;
+    private LocalDateTime[] times;
+    private long startNanos;
+    private SensorDataBatch batch;
+
+    public static void main(String[] args) throws RunnerException {
+        var opt = new OptionsBuilder().include(SensorDataBatchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        var random = new Random(13);
+        roomNames = new String[ROOMS_COUNT];
+        roomIds = new int[ROOMS_COUNT];
+        for (var idx = 0; idx < ROOMS_COUNT; idx++) {
+            roomNames[idx] = "Комната: " + idx;
+            roomIds[idx] = rooms.idOf(roomNames[idx]);
+        }
+        values = new double[readingsCount];
+        for (var idx = 0; idx < readingsCount; idx++) {
+            values[idx] = random.nextInt(0, 20) == 13 ? Double.NaN : random.nextDouble();
+        }
+        // время готовится заранее, чтобы в измерение не попадало создание LocalDateTime
+        var startTime = LocalDateTime.now();
+        times = new LocalDateTime[readingsCount];
+        for (var idx = 0; idx < readingsCount; idx++) {
+            times[idx] = startTime.plusNanos(idx);
+        }
+        startNanos = SensorDataBatch.toEpochNanos(startTime);
+        batch = new SensorDataBatch(rooms, readingsCount);
+    }
+
+    @Benchmark
+    public double objectPerReading() {
+        List<SensorData> readings = new ArrayList<>(readingsCount);
+        for (var idx = 0; idx < readingsCount; idx++) {
+            readings.add(new SensorData(times[idx], roomNames[idx % ROOMS_COUNT], values[idx]));
+        }
+
+        var sum = 0.0;
+        var errors = 0;
+        for (var sensorData : readings) {
+            if (sensorData.getValue() == null || sensorData.getValue().isNaN()) {
+                errors++;
+            } else {
+                sum += sensorData.getValue();
+            }
+        }
+        return sum + errors;
+    }
+
+    @Benchmark
+    public double columnarBatch() {
+        batch.clear();
+        for (var idx = 0; idx < readingsCount; idx++) {
+            batch.add(startNanos + idx, roomIds[idx % ROOMS_COUNT], values[idx]);
+        }
+
+        var sum = 0.0;
+        var errors = 0;
+        for (var idx = 0; idx < batch.size(); idx++) {
+            var value = batch.value(idx);
+            if (Double.isNaN(value)) {
+                errors++;
+            } else {
+                sum += value;
+            }
+        }
+        return sum + errors;
+    }
+}
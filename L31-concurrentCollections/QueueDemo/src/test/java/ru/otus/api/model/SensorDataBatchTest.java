@@ -0,0 +1,77 @@
+package ru.otus.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensorDataBatchTest {
+
+    @Test
+    void shouldKeepReadingsInColumns() {
+        var rooms = new RoomDictionary();
+        var batch = new SensorDataBatch(rooms, 1);
+        var time = LocalDateTime.of(2023, 5, 1, 12, 30, 15, 123_456_789);
+        var readings = List.of(
+                new SensorData(time, "Комната: 1", 1.5),
+                new SensorData(time.plusSeconds(1), "Комната: 2", Double.NaN),
+                new SensorData(time.plusSeconds(2), "Комната: 1", null));
+
+        readings.forEach(batch::add);
+
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(rooms.size()).isEqualTo(2);
+        assertThat(batch.roomId(0)).isEqualTo(batch.roomId(2));
+        assertThat(batch.room(1)).isEqualTo("Комната: 2");
+        assertThat(batch.measurementTime(0)).isEqualTo(time);
+        assertThat(batch.value(0)).isEqualTo(1.5);
+        assertThat(batch.isError(1)).isTrue();
+        assertThat(batch.isError(2)).isFalse();
+        assertThat(batch.isMissing(2)).isTrue();
+        assertThat(batch.toSensorData(2).getValue()).isNull();
+        assertThat(batch.toSensorDataList()).extracting(SensorData::getMeasurementTime)
+                .containsExactly(time, time.plusSeconds(1), time.plusSeconds(2));
+    }
+
+    @Test
+    void shouldBeReusableAfterClear() {
+        var batch = new SensorDataBatch(new RoomDictionary(), 4);
+        batch.add(1L, 0, 1.0);
+        batch.clear();
+
+        assertThat(batch.isEmpty()).isTrue();
+        batch.add(2L, 0, 2.0);
+        assertThat(batch.measurementNanos(0)).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldSortByMeasurementTimeKeepingOrderOfEqualTimes() {
+        var batch = new SensorDataBatch(new RoomDictionary(), 4);
+        batch.add(3L, 0, 1.0);
+        batch.add(1L, 0, 2.0);
+        batch.add(3L, 0, 3.0);
+        batch.addMissing(2L, 0);
+
+        batch.sortByMeasurementTime();
+
+        assertThat(List.of(batch.measurementNanos(0), batch.measurementNanos(1),
+                batch.measurementNanos(2), batch.measurementNanos(3))).containsExactly(1L, 2L, 3L, 3L);
+        assertThat(batch.isMissing(1)).isTrue();
+        assertThat(batch.value(2)).isEqualTo(1.0);
+        assertThat(batch.value(3)).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldCopyRowsBetweenBatchesWithDifferentDictionaries() {
+        var source = new SensorDataBatch(new RoomDictionary(), 2);
+        source.add(new SensorData(LocalDateTime.of(2023, 5, 1, 12, 0), "Комната: 2", null));
+        var target = new SensorDataBatch(new RoomDictionary(), 2);
+        target.add(new SensorData(LocalDateTime.of(2023, 5, 1, 11, 0), "Комната: 1", 1.0));
+
+        target.add(source, 0);
+
+        assertThat(target.toSensorData(1)).isEqualTo(source.toSensorData(0));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.otus.services;
+
+import org.junit.jupiter.api.Test;
+import ru.otus.api.SensorDataProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ProcessorRoutingTableTest {
+    private final SensorDataProcessor roomProcessor = mock(SensorDataProcessor.class);
+    private final SensorDataProcessor allRoomsProcessor = mock(SensorDataProcessor.class);
+    private final SensorDataProcessor prefixProcessor = mock(SensorDataProcessor.class);
+    private final SensorDataProcessor singleCharProcessor = mock(SensorDataProcessor.class);
+
+    private final ProcessorRoutingTable routingTable = ProcessorRoutingTable.EMPTY
+            .withBinding("Комната: 4", roomProcessor)
+            .withBinding("*", allRoomsProcessor)
+            .withBinding("Комната: *", prefixProcessor)
+            .withBinding("Комната: ?", singleCharProcessor);
+
+    @Test
+    void shouldPutAllRoomsProcessorsFirstAndKeepBindingOrder() {
+        assertThat(routingTable.processorsFor("Комната: 4"))
+                .containsExactly(allRoomsProcessor, roomProcessor, prefixProcessor, singleCharProcessor);
+    }
+
+    @Test
+    void shouldMatchRoomPatterns() {
+        assertThat(routingTable.processorsFor("Комната: 12")).containsExactly(allRoomsProcessor, prefixProcessor);
+        assertThat(routingTable.processorsFor("Комната: 7"))
+                .containsExactly(allRoomsProcessor, prefixProcessor, singleCharProcessor);
+        assertThat(routingTable.processorsFor("Кухня")).containsExactly(allRoomsProcessor);
+    }
+
+    @Test
+    void shouldReuseResolvedRoute() {
+        assertThat(routingTable.processorsFor("Кухня")).isSameAs(routingTable.processorsFor("Кухня"));
+    }
+
+    @Test
+    void shouldNotCacheMoreThanMaxRoutes() {
+        for (var idx = 0; idx < ProcessorRoutingTable.MAX_CACHED_ROUTES * 2; idx++) {
+            routingTable.processorsFor("Комната: " + idx);
+        }
+
+        assertThat(routingTable.cachedRoutesCount()).isLessThanOrEqualTo(ProcessorRoutingTable.MAX_CACHED_ROUTES);
+        assertThat(routingTable.processorsFor("Комната: " + ProcessorRoutingTable.MAX_CACHED_ROUTES * 3))
+                .containsExactly(allRoomsProcessor, prefixProcessor);
+    }
+}
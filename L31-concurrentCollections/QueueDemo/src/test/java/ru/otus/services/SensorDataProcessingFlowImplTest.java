@@ -0,0 +1,71 @@
+package ru.otus.services;
+
+import org.junit.jupiter.api.RepeatedTest;
+import ru.otus.api.SensorDataProcessor;
+import ru.otus.api.model.LaneMetrics;
+import ru.otus.api.model.SensorData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensorDataProcessingFlowImplTest {
+    private static final int ROOMS_COUNT = 8;
+    private static final int READINGS_PER_ROOM = 500;
+    private static final int LANES_COUNT = 4;
+
+    @RepeatedTest(10)
+    void shouldKeepPerRoomOrderWhenProcessingInManyLanes() throws InterruptedException {
+        var channel = new SensorsDataQueueChannel(ROOMS_COUNT * READINGS_PER_ROOM);
+        var flow = new SensorDataProcessingFlowImpl(channel, LANES_COUNT);
+
+        var valuesByRoom = new ConcurrentHashMap<String, List<Double>>();
+        var threadsByRoom = new ConcurrentHashMap<String, Set<String>>();
+        var processingEnd = new CountDownLatch(1);
+        flow.bindProcessor("*", new SensorDataProcessor() {
+            @Override
+            public void process(SensorData data) {
+                valuesByRoom.computeIfAbsent(data.getRoom(), k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(data.getValue());
+                threadsByRoom.computeIfAbsent(data.getRoom(), k -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void onProcessingEnd() {
+                processingEnd.countDown();
+            }
+        });
+
+        var now = LocalDateTime.now();
+        for (var idx = 0; idx < READINGS_PER_ROOM; idx++) {
+            for (var room = 0; room < ROOMS_COUNT; room++) {
+                assertThat(channel.push(new SensorData(now, "Комната: " + room, (double) idx))).isTrue();
+            }
+        }
+
+        flow.startProcessing();
+        flow.stopProcessing();
+        assertThat(processingEnd.await(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(valuesByRoom).hasSize(ROOMS_COUNT);
+        for (Map.Entry<String, List<Double>> roomValues : valuesByRoom.entrySet()) {
+            assertThat(roomValues.getValue()).hasSize(READINGS_PER_ROOM).isSorted();
+            assertThat(threadsByRoom.get(roomValues.getKey())).hasSize(1);
+        }
+
+        var metrics = flow.laneMetrics();
+        assertThat(metrics).hasSize(LANES_COUNT);
+        assertThat(metrics.stream().mapToLong(LaneMetrics::processed).sum())
+                .isEqualTo(ROOMS_COUNT * READINGS_PER_ROOM);
+        assertThat(metrics).allMatch(laneMetrics -> laneMetrics.queueDepth() == 0);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.otus.services;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import ru.otus.api.OverflowPolicy;
+import ru.otus.api.model.SensorData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SensorsDataRingBufferChannelTest {
+    private static final int CAPACITY = 4;
+
+    @Test
+    void shouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new SensorsDataRingBufferChannel(1000, OverflowPolicy.BLOCK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldDropNewestWhenOverflow() throws InterruptedException {
+        var channel = new SensorsDataRingBufferChannel(CAPACITY, OverflowPolicy.DROP_NEWEST);
+        var pushResults = pushValues(channel, CAPACITY + 2);
+
+        assertThat(pushResults).containsExactly(true, true, true, true, false, false);
+        assertThat(channel.droppedCount()).isEqualTo(2);
+        assertThat(takeValues(channel)).containsExactly(0d, 1d, 2d, 3d);
+    }
+
+    @Test
+    void shouldDropOldestWhenOverflow() throws InterruptedException {
+        var channel = new SensorsDataRingBufferChannel(CAPACITY, OverflowPolicy.DROP_OLDEST);
+        var pushResults = pushValues(channel, CAPACITY + 2);
+
+        assertThat(pushResults).containsOnly(true);
+        assertThat(channel.droppedCount()).isEqualTo(2);
+        assertThat(takeValues(channel)).containsExactly(2d, 3d, 4d, 5d);
+    }
+
+    @Test
+    void shouldBlockProducerUntilConsumerTakesData() throws InterruptedException {
+        var channel = new SensorsDataRingBufferChannel(CAPACITY, OverflowPolicy.BLOCK);
+        pushValues(channel, CAPACITY);
+
+        var producer = new Thread(() -> channel.push(sensorData(CAPACITY)));
+        producer.start();
+        producer.join(100);
+        assertThat(producer.isAlive()).isTrue();
+
+        assertThat(channel.take(0, TimeUnit.SECONDS).getValue()).isEqualTo(0d);
+        producer.join(1_000);
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(takeValues(channel)).containsExactly(1d, 2d, 3d, 4d);
+    }
+
+    @Test
+    void shouldReturnEmptyBatchAfterTimeout() throws InterruptedException {
+        var channel = new SensorsDataRingBufferChannel(CAPACITY, OverflowPolicy.BLOCK);
+        List<SensorData> batch = new ArrayList<>();
+
+        assertThat(channel.takeBatch(batch, CAPACITY, 10, TimeUnit.MILLISECONDS)).isZero();
+        assertThat(batch).isEmpty();
+    }
+
+    @RepeatedTest(10)
+    void shouldDeliverAllDataFromManyProducers() throws InterruptedException {
+        var producersCount = 4;
+        var valuesPerProducer = 10_000;
+        var channel = new SensorsDataRingBufferChannel(64, OverflowPolicy.BLOCK);
+        var producers = new ArrayList<Thread>();
+        for (var producerIdx = 0; producerIdx < producersCount; producerIdx++) {
+            var producer = new Thread(() -> pushValues(channel, valuesPerProducer));
+            producer.start();
+            producers.add(producer);
+        }
+
+        List<SensorData> batch = new ArrayList<>();
+        var expected = producersCount * valuesPerProducer;
+        while (batch.size() < expected) {
+            assertThat(channel.takeBatch(batch, 256, 5, TimeUnit.SECONDS)).isPositive();
+        }
+        for (var producer : producers) {
+            producer.join();
+        }
+
+        assertThat(batch).hasSize(expected);
+        assertThat(channel.isEmpty()).isTrue();
+    }
+
+    private List<Boolean> pushValues(SensorsDataRingBufferChannel channel, int count) {
+        List<Boolean> results = new ArrayList<>();
+        for (var idx = 0; idx < count; idx++) {
+            results.add(channel.push(sensorData(idx)));
+        }
+        return results;
+    }
+
+    private List<Double> takeValues(SensorsDataRingBufferChannel channel) throws InterruptedException {
+        List<SensorData> batch = new ArrayList<>();
+        channel.takeBatch(batch, Integer.MAX_VALUE, 0, TimeUnit.SECONDS);
+        return batch.stream().map(SensorData::getValue).toList();
+    }
+
+    private SensorData sensorData(double value) {
+        return new SensorData(LocalDateTime.now(), "Комната: 1", value);
+    }
+}
@@ -5,15 +5,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.api.model.RoomDictionary;
 import ru.otus.api.model.SensorData;
+import ru.otus.api.model.SensorDataBatch;
 import ru.otus.lib.SensorDataBufferedWriter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -34,7 +38,8 @@ class SensorDataProcessorBufferedTest {
     public static final int BUFFER_SIZE = 2000;
     public static final String ANY_ROOM = "AnyRoom";
 
-    @Mock
+    // процессор пишет через writeBufferedBatch, ее реализация по умолчанию вызывает writeBufferedData
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private SensorDataBufferedWriter writer;
 
     @Captor
@@ -169,6 +174,78 @@ class SensorDataProcessorBufferedTest {
         assertThat(writer.getData()).isEqualTo(sensorDataList);
     }
 
+    @Test
+    void shouldFlushByTimerWhenBufferIsNotFull() throws InterruptedException {
+        List<SensorData> sensorDataList = getSensorDataForTest(BUFFER_SIZE / 2);
+        var flushed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushed.countDown();
+            return null;
+        }).when(writer).writeBufferedData(any());
+
+        var timedProcessor = new SensorDataProcessorBuffered(BUFFER_SIZE, writer, Duration.ofMillis(50));
+        sensorDataList.forEach(timedProcessor::process);
+
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(writer).writeBufferedData(captor.capture());
+        assertThat(captor.getValue()).isEqualTo(sensorDataList);
+        timedProcessor.onProcessingEnd();
+    }
+
+    @Test
+    void shouldFlushInCallerThreadAfterProcessingEnd() {
+        var timedProcessor = new SensorDataProcessorBuffered(BUFFER_SIZE, writer, Duration.ofSeconds(60));
+        timedProcessor.onProcessingEnd();
+
+        getSensorDataForTest(BUFFER_SIZE).forEach(timedProcessor::process);
+        getSensorDataForTest(BUFFER_SIZE).forEach(timedProcessor::process);
+
+        verify(writer, times(2)).writeBufferedData(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(flushedData -> assertThat(flushedData).hasSize(BUFFER_SIZE));
+        assertThat(timedProcessor.droppedCount()).isZero();
+    }
+
+    @Test
+    void shouldBufferBatchAndFlushItSortedByTime() {
+        List<SensorData> sensorDataList = getSensorDataForTest(BUFFER_SIZE);
+        var shuffled = new ArrayList<>(sensorDataList);
+        Collections.shuffle(shuffled);
+        var batch = new SensorDataBatch(new RoomDictionary(), BUFFER_SIZE);
+        shuffled.forEach(batch::add);
+
+        processor.processBatch(batch);
+
+        verify(processor, times(1)).flush();
+        verify(writer).writeBufferedData(captor.capture());
+        assertThat(captor.getValue()).containsExactlyElementsOf(sensorDataList);
+    }
+
+    @Test
+    void shouldDropBatchPartThatDoesNotFitIntoPendingBuffers() {
+        var maxPending = BUFFER_SIZE * 4;
+        var batch = new SensorDataBatch(new RoomDictionary(), maxPending + 10);
+        getSensorDataForTest(maxPending + 10).forEach(batch::add);
+        var timedProcessor = new SensorDataProcessorBuffered(BUFFER_SIZE, writer, Duration.ofHours(1));
+
+        timedProcessor.processBatch(batch);
+
+        assertThat(timedProcessor.droppedCount()).isEqualTo(10);
+        timedProcessor.onProcessingEnd();
+    }
+
+    @Test
+    void shouldCountLateData() {
+        List<SensorData> sensorDataList = getSensorDataForTest(BUFFER_SIZE - 1);
+        sensorDataList.forEach(processor::process);
+        processor.flush();
+
+        processor.process(new SensorData(sensorDataList.get(0).getMeasurementTime().minusSeconds(1), ANY_ROOM, 1d));
+        processor.flush();
+
+        assertThat(processor.lateCount()).isEqualTo(1);
+        assertThat(processor.droppedCount()).isZero();
+    }
+
     private List<SensorData> getSensorDataForTest(int limit) {
         var startTime = LocalDateTime.now();
         return DoubleStream.iterate(0.0, d -> d + 1)
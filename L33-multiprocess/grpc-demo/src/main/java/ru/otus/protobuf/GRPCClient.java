@@ -1,42 +1,57 @@
 package ru.otus.protobuf;
 
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.stub.StreamObserver;
-import ru.otus.protobuf.generated.Empty;
-import ru.otus.protobuf.generated.RemoteDBServiceGrpc;
+import ru.otus.protobuf.client.ClientConfig;
+import ru.otus.protobuf.client.LatencyHistogram;
+import ru.otus.protobuf.client.RemoteDBClient;
 import ru.otus.protobuf.generated.UserMessage;
+import ru.otus.protobuf.service.RealDBServiceImpl;
+import ru.otus.protobuf.service.RemoteDBServiceImpl;
 
+import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/*
+Без аргументов - демо против GRPCServer на localhost:8190.
+Режим бенчмарка поднимает встроенный сервер и гоняет асинхронные saveUser:
+bench [inprocess|loopback] [вызовов] [одновременных вызовов] [direct|pool]
+ */
 public class GRPCClient {
 
     private static final String SERVER_HOST = "localhost";
     private static final int SERVER_PORT = 8190;
+    private static final String BENCH_SERVER_NAME = "grpc-client-bench";
 
-    public static void main(String[] args) throws InterruptedException {
-        var channel = ManagedChannelBuilder.forAddress(SERVER_HOST, SERVER_PORT)
-                .usePlaintext()
-                .build();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "bench".equals(args[0])) {
+            bench(args);
+            return;
+        }
+        try (var client = RemoteDBClient.forAddress(SERVER_HOST, SERVER_PORT, ClientConfig.DEFAULT)) {
+            demo(client);
+        }
+    }
 
-        var stub = RemoteDBServiceGrpc.newBlockingStub(channel);
-        var savedUserMsg = stub.saveUser(
-                UserMessage.newBuilder().setFirstName("Вася").setLastName("Кириешкин").build()
-        );
+    private static void demo(RemoteDBClient client) throws InterruptedException {
+        var savedUserMsg = client.saveUser("Вася", "Кириешкин");
 
         System.out.printf("Мы сохранили Васю: {id: %d, name: %s %s}%n",
                 savedUserMsg.getId(), savedUserMsg.getFirstName(), savedUserMsg.getLastName());
 
-        var allUsersIterator = stub.findAllUsers(Empty.getDefaultInstance());
         System.out.println("Конградулейшенз! Мы получили юзеров! Среди них должен найтись один Вася!");
-        allUsersIterator.forEachRemaining(um ->
+        client.findAllUsers().forEach(um ->
                 System.out.printf("{id: %d, name: %s %s}%n",
                         um.getId(), um.getFirstName(), um.getLastName())
         );
 
         System.out.println("\n\n\nА теперь тоже самое, только асинхронно!!!\n\n");
         var latch = new CountDownLatch(1);
-        var newStub = RemoteDBServiceGrpc.newStub(channel);
-        newStub.findAllUsers(Empty.getDefaultInstance(), new StreamObserver<UserMessage>() {
+        client.findAllUsers(new StreamObserver<UserMessage>() {
             @Override
             public void onNext(UserMessage um) {
                 System.out.printf("{id: %d, name: %s %s}%n",
@@ -46,6 +61,7 @@ public class GRPCClient {
             @Override
             public void onError(Throwable t) {
                 System.err.println(t);
+                latch.countDown();
             }
 
             @Override
@@ -56,7 +72,62 @@ public class GRPCClient {
         });
 
         latch.await();
+    }
+
+    private static void bench(String[] args) throws IOException, InterruptedException {
+        var loopback = args.length > 1 && "loopback".equals(args[1]);
+        var calls = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        var concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+        var config = ClientConfig.DEFAULT.withDirectExecutor(args.length > 4 && "direct".equals(args[4]));
+
+        var service = new RemoteDBServiceImpl(new RealDBServiceImpl());
+        Server server = loopback
+                ? GRPCServer.serverBuilder(0).addService(service).build().start()
+                : InProcessServerBuilder.forName(BENCH_SERVER_NAME).addService(service).build().start();
+        try (var client = loopback
+                ? RemoteDBClient.forAddress(SERVER_HOST, server.getPort(), config)
+                : RemoteDBClient.inProcess(BENCH_SERVER_NAME, config)) {
+            System.out.printf("transport: %s, executor: %s, calls: %d, concurrency: %d%n",
+                    loopback ? "loopback" : "in-process", config.directExecutor() ? "direct" : "pool",
+                    calls, concurrency);
+            // прогрев: JIT и установка соединения не должны попадать в замер
+            runCalls(client, Math.min(calls, 20_000), concurrency, new LatencyHistogram());
+
+            var histogram = new LatencyHistogram();
+            var begin = System.nanoTime();
+            var errors = runCalls(client, calls, concurrency, histogram);
+            var elapsed = System.nanoTime() - begin;
+
+            System.out.printf("throughput: %d calls/s, errors: %d%n",
+                    calls * TimeUnit.SECONDS.toNanos(1) / elapsed, errors);
+            System.out.printf("latency us: p50 <= %d, p90 <= %d, p99 <= %d, p99.9 <= %d%n",
+                    histogram.percentileMicros(0.5), histogram.percentileMicros(0.9),
+                    histogram.percentileMicros(0.99), histogram.percentileMicros(0.999));
+            System.out.print(histogram.render());
+        } finally {
+            server.shutdown();
+            server.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
 
-        channel.shutdown();
+    private static long runCalls(RemoteDBClient client, int calls, int concurrency,
+                                 LatencyHistogram histogram) throws InterruptedException {
+        var permits = new Semaphore(concurrency);
+        var done = new CountDownLatch(calls);
+        var errors = new AtomicLong();
+        for (var idx = 0; idx < calls; idx++) {
+            permits.acquire();
+            var start = System.nanoTime();
+            client.saveUserAsync("user", String.valueOf(idx)).whenComplete((user, error) -> {
+                histogram.recordNanos(System.nanoTime() - start);
+                if (error != null) {
+                    errors.incrementAndGet();
+                }
+                permits.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return errors.get();
     }
 }
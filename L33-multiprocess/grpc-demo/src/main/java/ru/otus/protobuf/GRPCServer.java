@@ -1,26 +1,38 @@
 package ru.otus.protobuf;
 
 
-import io.grpc.ServerBuilder;
+import io.grpc.netty.NettyServerBuilder;
 import ru.otus.protobuf.service.RealDBServiceImpl;
 import ru.otus.protobuf.service.RemoteDBServiceImpl;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class GRPCServer {
 
     public static final int SERVER_PORT = 8190;
+    // не больше, чем keepAliveTime клиента (ClientConfig.DEFAULT - 30 секунд), иначе сервер закроет
+    // соединение с GOAWAY too_many_pings
+    public static final long KEEP_ALIVE_PERMIT_SECONDS = 20;
 
     public static void main(String[] args) throws IOException, InterruptedException {
 
         var dbService = new RealDBServiceImpl();
         var remoteDBService = new RemoteDBServiceImpl(dbService);
 
-        var server = ServerBuilder
-                .forPort(SERVER_PORT)
+        var server = serverBuilder(SERVER_PORT)
                 .addService(remoteDBService).build();
         server.start();
         System.out.println("server waiting for client connections...");
         server.awaitTermination();
     }
+
+    /**
+     * Клиент шлет PING и между вызовами (keepAliveWithoutCalls), сервер должен это разрешать.
+     */
+    public static NettyServerBuilder serverBuilder(int port) {
+        return NettyServerBuilder.forPort(port)
+                .permitKeepAliveTime(KEEP_ALIVE_PERMIT_SECONDS, TimeUnit.SECONDS)
+                .permitKeepAliveWithoutCalls(true);
+    }
 }
@@ -0,0 +1,147 @@
+package ru.otus.protobuf;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import ru.otus.protobuf.generated.Empty;
+import ru.otus.protobuf.generated.RemoteDBServiceGrpc;
+import ru.otus.protobuf.generated.SaveUsersResponse;
+import ru.otus.protobuf.generated.UserMessage;
+import ru.otus.protobuf.service.RealDBServiceImpl;
+import ru.otus.protobuf.service.RemoteDBServiceImpl;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Нагрузочный тест RemoteDBService через in-process транспорт.
+Несколько клиентов параллельно заливают пользователей через saveUsers, затем один клиент
+вычитывает всю таблицу через findAllUsers. Шаги повторяются, пока таблица не вырастет до maxUsers.
+Аргументы: [клиентов] [пользователей на шаг] [максимум пользователей]
+Запускать с достаточной кучей, например -Xmx4g.
+ */
+public class RemoteDBLoadTest {
+    private static final String SERVER_NAME = "remote-db-load-test";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        var usersPerStep = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000L;
+        var maxUsers = args.length > 2 ? Long.parseLong(args[2]) : 4_000_000L;
+
+        Server server = InProcessServerBuilder.forName(SERVER_NAME)
+                .addService(new RemoteDBServiceImpl(new RealDBServiceImpl()))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(SERVER_NAME).build();
+        try {
+            var stub = RemoteDBServiceGrpc.newStub(channel);
+            for (long total = usersPerStep; total <= maxUsers; total += usersPerStep) {
+                var saveNanos = saveUsers(stub, clients, usersPerStep);
+                var readCounter = new AtomicLong();
+                var readNanos = readAllUsers(stub, readCounter);
+                System.out.printf("users:%d, save: %d users/s, findAllUsers: %d users/s (read %d), heap used: %d MB%n",
+                        total, usersPerStep * TimeUnit.SECONDS.toNanos(1) / saveNanos,
+                        readCounter.get() * TimeUnit.SECONDS.toNanos(1) / readNanos,
+                        readCounter.get(), usedHeapMb());
+            }
+        } finally {
+            channel.shutdownNow();
+            server.shutdownNow();
+        }
+    }
+
+    private static long saveUsers(RemoteDBServiceGrpc.RemoteDBServiceStub stub, int clients, long users) {
+        var begin = System.nanoTime();
+        var futures = new CompletableFuture<?>[clients];
+        for (int idx = 0; idx < clients; idx++) {
+            var quota = users / clients + (idx < users % clients ? 1 : 0);
+            var future = new CompletableFuture<SaveUsersResponse>();
+            stub.saveUsers(new UsersUploader(quota, future));
+            futures[idx] = future;
+        }
+        CompletableFuture.allOf(futures).join();
+        return System.nanoTime() - begin;
+    }
+
+    private static long readAllUsers(RemoteDBServiceGrpc.RemoteDBServiceStub stub, AtomicLong counter) {
+        var begin = System.nanoTime();
+        var done = new CompletableFuture<Void>();
+        stub.findAllUsers(Empty.getDefaultInstance(), new StreamObserver<>() {
+            @Override
+            public void onNext(UserMessage value) {
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        });
+        done.join();
+        return System.nanoTime() - begin;
+    }
+
+    private static long usedHeapMb() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+    }
+
+    /**
+     * Отправляет пользователей, только пока поток готов (isReady), чтобы не копить их в буфере клиента.
+     */
+    private static class UsersUploader implements ClientResponseObserver<UserMessage, SaveUsersResponse> {
+        private final long quota;
+        private final CompletableFuture<SaveUsersResponse> result;
+        private long sent;
+        private boolean completed;
+
+        UsersUploader(long quota, CompletableFuture<SaveUsersResponse> result) {
+            this.quota = quota;
+            this.result = result;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<UserMessage> requestStream) {
+            requestStream.setOnReadyHandler(() -> {
+                while (sent < quota && requestStream.isReady()) {
+                    requestStream.onNext(UserMessage.newBuilder()
+                            .setFirstName("Вася" + sent)
+                            .setLastName("Кириешкин")
+                            .build());
+                    sent++;
+                }
+                if (sent == quota && !completed) {
+                    completed = true;
+                    requestStream.onCompleted();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(SaveUsersResponse value) {
+            result.complete(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            result.completeExceptionally(new IllegalStateException("no response"));
+        }
+    }
+}
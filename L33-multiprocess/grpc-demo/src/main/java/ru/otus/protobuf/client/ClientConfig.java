@@ -0,0 +1,36 @@
+package ru.otus.protobuf.client;
+
+import java.time.Duration;
+
+/**
+ * @param deadline            срок на каждый унарный вызов, отсчитывается от его начала
+ * @param streamDeadline      срок на весь серверный поток (findAllUsers); Duration.ZERO - без срока,
+ *                            зависшее соединение тогда обнаруживает keep-alive
+ * @param keepAliveTime       интервал HTTP/2 PING при отсутствии трафика; Duration.ZERO - не отправлять
+ * @param keepAliveTimeout    сколько ждать ответа на PING, прежде чем считать соединение мертвым
+ * @param directExecutor      true - колбэки выполняются прямо в потоках транспорта (быстрее,
+ *                            но колбэк не должен блокироваться); false - в пуле из executorThreads потоков
+ * @param executorThreads     размер пула колбэков при directExecutor = false
+ * @param retryReads          повторять ли идемпотентные чтения (findUsersPage) при UNAVAILABLE
+ */
+public record ClientConfig(Duration deadline,
+                           Duration streamDeadline,
+                           Duration keepAliveTime,
+                           Duration keepAliveTimeout,
+                           boolean directExecutor,
+                           int executorThreads,
+                           boolean retryReads) {
+
+    public static final ClientConfig DEFAULT = new ClientConfig(Duration.ofSeconds(5), Duration.ZERO,
+            Duration.ofSeconds(30), Duration.ofSeconds(10), false, 4, true);
+
+    public ClientConfig withDirectExecutor(boolean direct) {
+        return new ClientConfig(deadline, streamDeadline, keepAliveTime, keepAliveTimeout, direct, executorThreads,
+                retryReads);
+    }
+
+    public ClientConfig withStreamDeadline(Duration deadline) {
+        return new ClientConfig(this.deadline, deadline, keepAliveTime, keepAliveTimeout, directExecutor,
+                executorThreads, retryReads);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.otus.protobuf.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек в микросекундах с корзинами по степеням двойки: [0,1), [1,2), [2,4)...
+ * Запись - одна атомарная операция, без блокировок; перцентили - с точностью до корзины (верхняя граница).
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+
+    public void recordNanos(long nanos) {
+        var micros = nanos / 1000;
+        var bucket = micros == 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        counts.incrementAndGet(bucket);
+        total.increment();
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * @param percentile доля от 0 до 1, например 0.99
+     */
+    public long percentileMicros(double percentile) {
+        var threshold = (long) Math.ceil(percentile * count());
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= threshold && seen > 0) {
+                return upperBound(bucket);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    public String render() {
+        var sb = new StringBuilder();
+        var count = Math.max(count(), 1);
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            var bucketCount = counts.get(bucket);
+            if (bucketCount == 0) {
+                continue;
+            }
+            var share = 100.0 * bucketCount / count;
+            sb.append(String.format("  < %8d us: %10d %6.2f%% %s%n", upperBound(bucket), bucketCount, share,
+                    "#".repeat((int) Math.ceil(share / 2))));
+        }
+        return sb.toString();
+    }
+
+    private static long upperBound(int bucket) {
+        return 1L << bucket;
+    }
+}
@@ -0,0 +1,168 @@
+package ru.otus.protobuf.client;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.StreamObserver;
+import ru.otus.protobuf.generated.Empty;
+import ru.otus.protobuf.generated.FindUsersRequest;
+import ru.otus.protobuf.generated.RemoteDBServiceGrpc;
+import ru.otus.protobuf.generated.UserMessage;
+import ru.otus.protobuf.generated.UsersPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клиент RemoteDBService поверх одного переиспользуемого ManagedChannel.
+ * Канал потокобезопасен и мультиплексирует вызовы по HTTP/2, поэтому один экземпляр
+ * клиента обслуживает все потоки приложения.
+ */
+public class RemoteDBClient implements AutoCloseable {
+    private static final String SERVICE_NAME = RemoteDBServiceGrpc.SERVICE_NAME;
+
+    private final ManagedChannel channel;
+    private final ExecutorService callbackExecutor;
+    private final ClientConfig config;
+    private final RemoteDBServiceGrpc.RemoteDBServiceBlockingStub blockingStub;
+    private final RemoteDBServiceGrpc.RemoteDBServiceStub asyncStub;
+
+    private RemoteDBClient(ManagedChannelBuilder<?> channelBuilder, ClientConfig config) {
+        this.config = config;
+        if (config.directExecutor()) {
+            callbackExecutor = null;
+            channelBuilder.directExecutor();
+        } else {
+            callbackExecutor = Executors.newFixedThreadPool(config.executorThreads());
+            channelBuilder.executor(callbackExecutor);
+        }
+        if (config.retryReads()) {
+            channelBuilder.defaultServiceConfig(retryServiceConfig()).enableRetry();
+        }
+        this.channel = channelBuilder.build();
+        this.blockingStub = RemoteDBServiceGrpc.newBlockingStub(channel);
+        this.asyncStub = RemoteDBServiceGrpc.newStub(channel);
+    }
+
+    public static RemoteDBClient forAddress(String host, int port, ClientConfig config) {
+        var channelBuilder = ManagedChannelBuilder.forAddress(host, port).usePlaintext();
+        if (!config.keepAliveTime().isZero()) {
+            channelBuilder.keepAliveTime(config.keepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                    .keepAliveTimeout(config.keepAliveTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .keepAliveWithoutCalls(true);
+        }
+        return new RemoteDBClient(channelBuilder, config);
+    }
+
+    /**
+     * In-process транспорт keep-alive не поддерживает, эти настройки игнорируются.
+     */
+    public static RemoteDBClient inProcess(String serverName, ClientConfig config) {
+        return new RemoteDBClient(InProcessChannelBuilder.forName(serverName), config);
+    }
+
+    public UserMessage saveUser(String firstName, String lastName) {
+        return blockingStub().saveUser(userMessage(firstName, lastName));
+    }
+
+    public CompletableFuture<UserMessage> saveUserAsync(String firstName, String lastName) {
+        var result = new FutureObserver<UserMessage>();
+        asyncStub().saveUser(userMessage(firstName, lastName), result);
+        return result.future;
+    }
+
+    public List<UserMessage> findAllUsers() {
+        var users = new ArrayList<UserMessage>();
+        streamingStub(blockingStub).findAllUsers(Empty.getDefaultInstance()).forEachRemaining(users::add);
+        return users;
+    }
+
+    public void findAllUsers(StreamObserver<UserMessage> observer) {
+        streamingStub(asyncStub).findAllUsers(Empty.getDefaultInstance(), observer);
+    }
+
+    public CompletableFuture<UsersPage> findUsersPageAsync(long afterId, int pageSize) {
+        var result = new FutureObserver<UsersPage>();
+        asyncStub().findUsersPage(FindUsersRequest.newBuilder().setAfterId(afterId).setPageSize(pageSize).build(),
+                result);
+        return result.future;
+    }
+
+    @Override
+    public void close() {
+        channel.shutdown();
+        try {
+            if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                channel.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            channel.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    // deadline задается на каждый вызов: у стаба, созданного заранее, он бы уже истек
+    private RemoteDBServiceGrpc.RemoteDBServiceBlockingStub blockingStub() {
+        return blockingStub.withDeadlineAfter(config.deadline().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private RemoteDBServiceGrpc.RemoteDBServiceStub asyncStub() {
+        return asyncStub.withDeadlineAfter(config.deadline().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // поток всей таблицы идет дольше любого унарного вызова, поэтому у него свой срок
+    private <S extends AbstractStub<S>> S streamingStub(S stub) {
+        if (config.streamDeadline().isZero()) {
+            return stub;
+        }
+        return stub.withDeadlineAfter(config.streamDeadline().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static UserMessage userMessage(String firstName, String lastName) {
+        return UserMessage.newBuilder().setFirstName(firstName).setLastName(lastName).build();
+    }
+
+    /**
+     * Повторяется только идемпотентное чтение страницы; saveUser повторять нельзя - задублирует запись.
+     */
+    private static Map<String, Object> retryServiceConfig() {
+        Map<String, Object> retryPolicy = Map.of(
+                "maxAttempts", 3.0,
+                "initialBackoff", "0.1s",
+                "maxBackoff", "1s",
+                "backoffMultiplier", 2.0,
+                "retryableStatusCodes", List.of("UNAVAILABLE"));
+        Map<String, Object> methodConfig = Map.of(
+                "name", List.of(Map.of("service", SERVICE_NAME, "method", "findUsersPage")),
+                "retryPolicy", retryPolicy);
+        return Map.of("methodConfig", List.of(methodConfig));
+    }
+
+    private static class FutureObserver<T> implements StreamObserver<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        @Override
+        public void onNext(T value) {
+            future.complete(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            future.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            future.completeExceptionally(new IllegalStateException("no response"));
+        }
+    }
+}
@@ -6,5 +6,17 @@ import java.util.List;
 
 public interface RealDBService {
     User saveUser(String firstName, String lastName);
+
+    /**
+     * Сохраняет пачку: id пользователям назначаются подряд, переданный id игнорируется.
+     */
+    List<User> saveUsers(List<User> users);
+
     List<User> findAllUsers();
+
+    /**
+     * До limit пользователей с id больше afterId по возрастанию id.
+     * Пачка, которая сохраняется в этот момент, может попасть в выборку частично.
+     */
+    List<User> findUsers(long afterId, int limit);
 }
@@ -4,28 +4,58 @@ import ru.otus.protobuf.model.User;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Хранилище упорядочено по id, поэтому постраничное чтение продолжается с места,
+ * где остановилось, без повторного обхода и без блокировки параллельных записей.
+ */
 public class RealDBServiceImpl implements RealDBService {
-    private final AtomicInteger idCounter;
-    private final List<User> users;
+    private final AtomicLong idCounter;
+    private final ConcurrentNavigableMap<Long, User> users;
 
     public RealDBServiceImpl() {
-        idCounter = new AtomicInteger(0);
-        users = new ArrayList<>();
-        users.add(new User(idCounter.incrementAndGet(), "Дима", "Жмых"));
-        users.add(new User(idCounter.incrementAndGet(), "Оля", "Фитоняшкина"));
+        idCounter = new AtomicLong(0);
+        users = new ConcurrentSkipListMap<>();
+        saveUser("Дима", "Жмых");
+        saveUser("Оля", "Фитоняшкина");
     }
 
     @Override
     public User saveUser(String firstName, String lastName) {
         User user = new User(idCounter.incrementAndGet(), firstName, lastName);
-        users.add(user);
+        users.put(user.getId(), user);
         return user;
     }
 
+    @Override
+    public List<User> saveUsers(List<User> newUsers) {
+        var id = idCounter.getAndAdd(newUsers.size());
+        var saved = new ArrayList<User>(newUsers.size());
+        for (var newUser : newUsers) {
+            var user = new User(++id, newUser.getFirstName(), newUser.getLastName());
+            users.put(user.getId(), user);
+            saved.add(user);
+        }
+        return saved;
+    }
+
     @Override
     public List<User> findAllUsers() {
-        return users;
+        return new ArrayList<>(users.values());
+    }
+
+    @Override
+    public List<User> findUsers(long afterId, int limit) {
+        var page = new ArrayList<User>(Math.min(limit, 1024));
+        for (var user : users.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(user);
+        }
+        return page;
     }
 }
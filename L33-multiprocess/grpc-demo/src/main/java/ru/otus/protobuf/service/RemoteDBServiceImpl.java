@@ -1,14 +1,25 @@
 package ru.otus.protobuf.service;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import ru.otus.protobuf.generated.Empty;
+import ru.otus.protobuf.generated.FindUsersRequest;
 import ru.otus.protobuf.generated.RemoteDBServiceGrpc;
+import ru.otus.protobuf.generated.SaveUsersResponse;
 import ru.otus.protobuf.generated.UserMessage;
+import ru.otus.protobuf.generated.UsersPage;
 import ru.otus.protobuf.model.User;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 
 public class RemoteDBServiceImpl extends RemoteDBServiceGrpc.RemoteDBServiceImplBase {
+    private static final int SAVE_BATCH_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 10_000;
 
     private final RealDBService realDBService;
 
@@ -23,17 +34,79 @@ public class RemoteDBServiceImpl extends RemoteDBServiceGrpc.RemoteDBServiceImpl
         responseObserver.onCompleted();
     }
 
+    /**
+     * Пользователи сохраняются пачками по мере поступления; ответ один - после завершения потока.
+     * Если клиент оборвал поток, уже сохраненные пачки остаются.
+     */
     @Override
-    public void findAllUsers(Empty request, StreamObserver<UserMessage> responseObserver) {
-        List<User> allUsers = realDBService.findAllUsers();
-        allUsers.forEach(u -> {
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    public StreamObserver<UserMessage> saveUsers(StreamObserver<SaveUsersResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private final List<User> batch = new ArrayList<>(SAVE_BATCH_SIZE);
+            private long savedCount;
+            private long firstId;
+            private long lastId;
+
+            @Override
+            public void onNext(UserMessage userMessage) {
+                batch.add(new User(0, userMessage.getFirstName(), userMessage.getLastName()));
+                if (batch.size() == SAVE_BATCH_SIZE) {
+                    saveBatch();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                System.err.printf("saveUsers aborted, saved:%d, error:%s%n", savedCount, t);
+            }
+
+            @Override
+            public void onCompleted() {
+                saveBatch();
+                responseObserver.onNext(SaveUsersResponse.newBuilder()
+                        .setSavedCount(savedCount)
+                        .setFirstId(firstId)
+                        .setLastId(lastId)
+                        .build());
+                responseObserver.onCompleted();
             }
-            responseObserver.onNext(user2UserMessage(u));
-        });
+
+            private void saveBatch() {
+                if (batch.isEmpty()) {
+                    return;
+                }
+                var saved = realDBService.saveUsers(batch);
+                if (savedCount == 0) {
+                    firstId = saved.get(0).getId();
+                }
+                lastId = saved.get(saved.size() - 1).getId();
+                savedCount += saved.size();
+                batch.clear();
+            }
+        };
+    }
+
+    /**
+     * Пользователи читаются из хранилища страницами и отправляются, только пока
+     * транспорт готов принять данные (isReady), дальше - по сигналу onReady.
+     * Так медленный клиент не заставляет сервер буферизовать всю таблицу.
+     */
+    @Override
+    public void findAllUsers(Empty request, StreamObserver<UserMessage> responseObserver) {
+        var serverObserver = (ServerCallStreamObserver<UserMessage>) responseObserver;
+        var streamer = new UsersStreamer(serverObserver);
+        serverObserver.setOnCancelHandler(streamer::cancel);
+        serverObserver.setOnReadyHandler(streamer);
+    }
+
+    @Override
+    public void findUsersPage(FindUsersRequest request, StreamObserver<UsersPage> responseObserver) {
+        var pageSize = request.getPageSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(request.getPageSize(), MAX_PAGE_SIZE);
+        var users = realDBService.findUsers(request.getAfterId(), pageSize);
+        var page = UsersPage.newBuilder()
+                .setLast(users.size() < pageSize)
+                .setNextAfterId(users.isEmpty() ? request.getAfterId() : users.get(users.size() - 1).getId());
+        users.forEach(user -> page.addUsers(user2UserMessage(user)));
+        responseObserver.onNext(page.build());
         responseObserver.onCompleted();
     }
 
@@ -44,4 +117,39 @@ public class RemoteDBServiceImpl extends RemoteDBServiceGrpc.RemoteDBServiceImpl
                 .setLastName(user.getLastName())
                 .build();
     }
+
+    /**
+     * Вызовы onReady и onCancel для одного вызова gRPC сериализованы, синхронизация не нужна.
+     */
+    private class UsersStreamer implements Runnable {
+        private final ServerCallStreamObserver<UserMessage> observer;
+        private final Queue<User> page = new ArrayDeque<>(STREAM_PAGE_SIZE);
+        private long afterId;
+        private boolean done;
+
+        UsersStreamer(ServerCallStreamObserver<UserMessage> observer) {
+            this.observer = observer;
+        }
+
+        @Override
+        public void run() {
+            while (!done && observer.isReady()) {
+                if (page.isEmpty()) {
+                    page.addAll(realDBService.findUsers(afterId, STREAM_PAGE_SIZE));
+                    if (page.isEmpty()) {
+                        done = true;
+                        observer.onCompleted();
+                        return;
+                    }
+                }
+                var user = page.poll();
+                afterId = user.getId();
+                observer.onNext(user2UserMessage(user));
+            }
+        }
+
+        void cancel() {
+            done = true;
+        }
+    }
 }
@@ -3,12 +3,18 @@ package ru.otus.processrunner;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class ProcessRunner {
     private static final String BASE_PATH = "./L33-multiprocess/processes-demo";
@@ -21,6 +27,8 @@ public class ProcessRunner {
     private static final String JOBS_PACKAGE_DIR = "/ru/otus/processrunner/jobs/";
     private static final String JOB_CLASS = "ru.otus.processrunner.jobs.Job";
     private static final String JOB_CLASS_FILE_NAME = "Job.java";
+    private static final String JOB_COMPILED_FILE_NAME = "Job.class";
+    private static final String WORKER_ARG = "worker";
 
     public static void main(String[] args) throws Exception {
         compileJobClass();
@@ -29,6 +37,7 @@ public class ProcessRunner {
         //jobExecutionWithOutputInterception();
         //compareTwoFilesAsynchronouslyWithAnExternalTool();
         //printProcessesList();
+        //compareWorkerPoolWithSpawnPerJob(200, 100, 4);
     }
 
     private static void simpleJobExecution() throws Exception {
@@ -114,8 +123,84 @@ public class ProcessRunner {
                 ));
     }
 
+    // Запуск JVM на каждое задание против пула постоянно работающих JVM
+    private static void compareWorkerPoolWithSpawnPerJob(int jobs, int endOfRange, int workers) throws Exception {
+        var executor = Executors.newFixedThreadPool(workers);
+        try {
+            var begin = System.nanoTime();
+            runAll(jobs, workers, () -> runJobInNewProcess(endOfRange, executor));
+            var spawnNanos = System.nanoTime() - begin;
+
+            long poolNanos;
+            try (var pool = new WorkerPool(workers, new File(SRC_PATH), JAVA_CMD, JOB_CLASS, WORKER_ARG)) {
+                // первое задание на каждом процессе дожидается старта JVM, в замер не входит
+                runAll(workers, workers, () -> pool.submit(endOfRange));
+                begin = System.nanoTime();
+                runAll(jobs, workers, () -> pool.submit(endOfRange));
+                poolNanos = System.nanoTime() - begin;
+            }
+
+            System.out.printf("jobs: %d, endOfRange: %d, parallelism: %d%n", jobs, endOfRange, workers);
+            System.out.printf("spawn per job: %.1f jobs/s%n", jobs * 1e9 / spawnNanos);
+            System.out.printf("worker pool:   %.1f jobs/s%n", jobs * 1e9 / poolNanos);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // не больше parallelism заданий одновременно, чтобы оба режима сравнивались при равном числе процессов
+    private static void runAll(int jobs, int parallelism,
+                               Supplier<CompletableFuture<String>> job) {
+        var inFlight = new ArrayList<CompletableFuture<String>>();
+        for (var idx = 0; idx < jobs; idx++) {
+            if (inFlight.size() == parallelism) {
+                CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+            inFlight.add(job.get());
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static CompletableFuture<String> runJobInNewProcess(int endOfRange, ExecutorService executor) {
+        try {
+            var processBuilder = new ProcessBuilder(JAVA_CMD, JOB_CLASS).directory(new File(SRC_PATH));
+            processBuilder.environment().put("endOfRange", String.valueOf(endOfRange));
+            var process = processBuilder.start();
+            // вывод вычитывается параллельно, иначе процесс встанет на заполненном pipe
+            var output = CompletableFuture.supplyAsync(() -> readOutput(process), executor);
+            return process.onExit().thenCombine(output, (p, out) -> {
+                if (p.exitValue() != 0) {
+                    throw new IllegalStateException("job failed, exit code:" + p.exitValue());
+                }
+                return out;
+            });
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String readOutput(Process process) {
+        try (var in = process.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static void compileJobClass() throws Exception {
-        new ProcessBuilder(JAVAC_CMD, JOB_CLASS_FILE_NAME).directory(new File(SRC_PATH + JOBS_PACKAGE_DIR))
-                .start().waitFor(1, TimeUnit.MINUTES);
+        var jobsDir = new File(SRC_PATH + JOBS_PACKAGE_DIR);
+        var source = new File(jobsDir, JOB_CLASS_FILE_NAME);
+        var compiled = new File(jobsDir, JOB_COMPILED_FILE_NAME);
+        if (compiled.exists() && compiled.lastModified() >= source.lastModified()) {
+            System.out.println("Job.class is up to date, compilation skipped");
+            return;
+        }
+        var process = new ProcessBuilder(JAVAC_CMD, "-encoding", "UTF-8", JOB_CLASS_FILE_NAME).directory(jobsDir)
+                .inheritIO()
+                .start();
+        if (!process.waitFor(1, TimeUnit.MINUTES) || process.exitValue() != 0) {
+            throw new IllegalStateException("Job compilation failed");
+        }
     }
 }
@@ -0,0 +1,148 @@
+package ru.otus.processrunner;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пул "прогретых" JVM, запущенных в режиме worker: старт JVM оплачивается один раз,
+ * дальше каждому заданию нужен только обмен кадрами через stdin/stdout.
+ * У каждого процесса свой поток-диспетчер, который берет задания из общей очереди.
+ * Задание, на котором процесс упал, возвращается в начало очереди и достается живому worker-у,
+ * но не больше MAX_ATTEMPTS раз: задание, которое роняет любой процесс, не должно перезапускать их вечно.
+ */
+public class WorkerPool implements AutoCloseable {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final List<String> command;
+    private final File directory;
+    private final BlockingDeque<Task> tasks = new LinkedBlockingDeque<>();
+    private final List<Worker> workers = new ArrayList<>();
+    private volatile boolean closed;
+
+    public WorkerPool(int size, File directory, String... command) {
+        this.command = List.of(command);
+        this.directory = directory;
+        for (var idx = 0; idx < size; idx++) {
+            workers.add(startWorker(idx));
+        }
+    }
+
+    public CompletableFuture<String> submit(int endOfRange) {
+        if (closed) {
+            throw new IllegalStateException("pool is closed");
+        }
+        var task = new Task(endOfRange, new CompletableFuture<>(), 1);
+        tasks.add(task);
+        return task.result();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<Worker> toStop;
+        synchronized (workers) {
+            toStop = new ArrayList<>(workers);
+        }
+        toStop.forEach(worker -> worker.dispatcher.interrupt());
+        for (var worker : toStop) {
+            try {
+                // закрытый stdin - сигнал worker-у завершиться
+                worker.process.getOutputStream().close();
+                if (!worker.process.waitFor(5, TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                worker.process.destroyForcibly();
+            } catch (InterruptedException e) {
+                worker.process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        Task task;
+        while ((task = tasks.poll()) != null) {
+            task.result().completeExceptionally(new IllegalStateException("pool is closed"));
+        }
+    }
+
+    private Worker startWorker(int idx) {
+        try {
+            var process = new ProcessBuilder(command)
+                    .directory(directory)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            var worker = new Worker(process, new Thread(() -> dispatch(process), "job-worker-" + idx));
+            // упавший процесс заменяется новым, чтобы пул не "усыхал"
+            process.onExit().thenRun(() -> replaceIfDead(worker, idx));
+            worker.dispatcher.start();
+            return worker;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void replaceIfDead(Worker worker, int idx) {
+        if (closed) {
+            return;
+        }
+        synchronized (workers) {
+            if (workers.remove(worker)) {
+                // иначе диспетчер мертвого процесса так и ждет в tasks.take() и заберет следующее задание
+                worker.dispatcher.interrupt();
+                workers.add(startWorker(idx));
+            }
+        }
+    }
+
+    private void dispatch(Process process) {
+        var in = new DataInputStream(process.getInputStream());
+        var out = new DataOutputStream(process.getOutputStream());
+        while (process.isAlive()) {
+            Task task;
+            try {
+                task = tasks.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                out.writeInt(task.endOfRange());
+                out.flush();
+                var result = new byte[in.readInt()];
+                in.readFully(result);
+                task.result().complete(new String(result, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                retryOrFail(task, e);
+                process.destroyForcibly();
+                return;
+            }
+        }
+    }
+
+    private void retryOrFail(Task task, IOException error) {
+        if (closed || task.attempt() >= MAX_ATTEMPTS) {
+            task.result().completeExceptionally(error);
+            return;
+        }
+        var retry = new Task(task.endOfRange(), task.result(), task.attempt() + 1);
+        tasks.addFirst(retry);
+        // пул мог закрыться между проверкой и возвратом задания, тогда close его уже не увидит
+        if (closed && tasks.remove(retry)) {
+            task.result().completeExceptionally(error);
+        }
+    }
+
+    private record Task(int endOfRange, CompletableFuture<String> result, int attempt) {
+    }
+
+    private record Worker(Process process, Thread dispatcher) {
+    }
+}
@@ -1,5 +1,12 @@
 package ru.otus.processrunner.jobs;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 import java.util.stream.IntStream;
 
@@ -7,9 +14,20 @@ import java.util.stream.IntStream;
 from location: src/main/java
 javac ru/otus/processrunner/jobs/Job.java
 java ru.otus.processrunner.jobs.Job
+
+В режиме worker процесс не завершается после одного задания:
+java ru.otus.processrunner.jobs.Job worker
+Запрос в stdin - int endOfRange, ответ в stdout - int длина + вывод задания в UTF-8.
+Закрытие stdin завершает процесс.
  */
 public class Job {
-  public static void main(String[] args) {
+  public static final String WORKER_ARG = "worker";
+
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0 && WORKER_ARG.equals(args[0])) {
+      serve();
+      return;
+    }
     String endOfRangeEnvVar = System.getenv("endOfRange");
 /*
     Scanner sc = new Scanner(System.in);
@@ -21,6 +39,31 @@ public class Job {
 */
     System.out.printf("EndOfRange environment variable: %s\n", endOfRangeEnvVar);
     int endOfRange = endOfRangeEnvVar == null? 100: Integer.parseInt(endOfRangeEnvVar);
-    IntStream.range(1, endOfRange).forEach(System.out::println);
+    run(endOfRange, System.out);
+  }
+
+  public static void run(int endOfRange, PrintStream out) {
+    IntStream.range(1, endOfRange).forEach(out::println);
+  }
+
+  private static void serve() throws IOException {
+    var in = new DataInputStream(System.in);
+    var out = new DataOutputStream(System.out);
+    var result = new ByteArrayOutputStream();
+    while (true) {
+      int endOfRange;
+      try {
+        endOfRange = in.readInt();
+      } catch (EOFException e) {
+        return;
+      }
+      result.reset();
+      var printStream = new PrintStream(result, false, StandardCharsets.UTF_8);
+      run(endOfRange, printStream);
+      printStream.flush();
+      out.writeInt(result.size());
+      result.writeTo(out);
+      out.flush();
+    }
   }
 }
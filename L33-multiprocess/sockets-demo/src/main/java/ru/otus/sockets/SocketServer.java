@@ -1,16 +1,33 @@
 package ru.otus.sockets;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SocketServer {
     private static final int PORT = 8090;
+    private static final int BACKLOG = 1000;
+    private static final String PER_CONNECTION_MODE = "per-connection";
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
 
+    /**
+     * Без аргументов клиенты обслуживаются по одному прямо в потоке accept,
+     * с аргументом "per-connection" - каждый в своем потоке.
+     */
     public static void main(String[] args) {
-        new SocketServer().go();
+        if (args.length > 0 && PER_CONNECTION_MODE.equals(args[0])) {
+            new SocketServer().goPerConnection(perConnectionExecutor());
+        } else {
+            new SocketServer().go();
+        }
     }
 
     private void go() {
@@ -27,6 +44,48 @@ public class SocketServer {
         }
     }
 
+    private void goPerConnection(ExecutorService executor) {
+        try (ServerSocket serverSocket = new ServerSocket(PORT, BACKLOG)) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket clientSocket = serverSocket.accept();
+                executor.execute(() -> {
+                    try (clientSocket) {
+                        handleClientConnection(clientSocket);
+                    } catch (IOException ex) {
+                        ex.printStackTrace();
+                    }
+                });
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Виртуальные потоки, если JVM их поддерживает (JDK 21+),
+     * иначе платформенные потоки с уменьшенным стеком.
+     */
+    private static ExecutorService perConnectionExecutor() {
+        try {
+            var factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            System.out.println("using virtual thread per connection");
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            System.out.println("virtual threads are not available, using platform thread per connection");
+        } catch (Throwable e) {
+            throw new IllegalStateException("can't create virtual thread executor", e);
+        }
+        var counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            var thread = new Thread(null, task, "client-" + counter.incrementAndGet(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void handleClientConnection(Socket clientSocket) {
         try (
                 PrintWriter outptStream = new PrintWriter(clientSocket.getOutputStream(), true);
@@ -35,10 +94,12 @@ public class SocketServer {
             String input = null;
             while (!"stop".equals(input)) {
                 input = in.readLine();
-                if (input != null) {
-                    System.out.println(String.format("from client: %s", input));
-                    outptStream.println(String.format("%s I Can Fly!", input));
+                if (input == null) {
+                    // клиент закрыл соединение, не дождавшись stop
+                    break;
                 }
+                System.out.println(String.format("from client: %s", input));
+                outptStream.println(String.format("%s I Can Fly!", input));
             }
         } catch (Exception ex) {
             ex.printStackTrace();
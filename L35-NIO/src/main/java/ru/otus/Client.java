@@ -13,8 +13,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class Client {
     private static final Logger logger = LoggerFactory.getLogger(Client.class);
 
-    private static final int PORT = 8080;
-    private static final String HOST = "localhost";
+    protected static final int PORT = 8080;
+    protected static final String HOST = "localhost";
 
     public static void main(String[] args) {
         var counter = new AtomicInteger(0);
@@ -2,6 +2,10 @@ package ru.otus;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.protocol.DirectBufferPool;
+import ru.otus.protocol.Frame;
+import ru.otus.protocol.FrameDecoder;
+import ru.otus.protocol.FrameWriteQueue;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -9,7 +13,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class ClientNIO {
@@ -17,6 +22,12 @@ public class ClientNIO {
 
     private static final int PORT = 8080;
     private static final String HOST = "localhost";
+    private static final int PIPELINE_DEPTH = 100;
+
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final FrameWriteQueue writeQueue = new FrameWriteQueue(new DirectBufferPool(4096, 4));
+    private final Map<Integer, Long> inFlight = new HashMap<>();
+    private int nextRequestId;
 
     public static void main(String[] args) throws InterruptedException {
       //    new Thread(() -> new ClientNIO().go("wait")).start();
@@ -27,7 +38,7 @@ public class ClientNIO {
 
     private void go(String request) {
         try {
-            try (var socketChannel = SocketChannel.open()) {
+            try (var socketChannel = SocketChannel.open(); var selector = Selector.open()) {
                 socketChannel.configureBlocking(false);
 
                 socketChannel.connect(new InetSocketAddress(HOST, PORT));
@@ -36,53 +47,76 @@ public class ClientNIO {
                 while (!socketChannel.finishConnect()) {
                     logger.info("connection established");
                 }
-                send(socketChannel, request);
-                handleResponse(socketChannel);
+                var key = socketChannel.register(selector, SelectionKey.OP_READ);
+                var begin = System.nanoTime();
+                for (var idx = 0; idx < PIPELINE_DEPTH; idx++) {
+                    var requestId = nextRequestId++;
+                    writeQueue.add(Frame.of(requestId, request + "_" + idx));
+                    inFlight.put(requestId, System.nanoTime());
+                }
+                logger.info("sending {} requests to server", PIPELINE_DEPTH);
+                flush(key);
+                while (!inFlight.isEmpty()) {
+                    selector.select(this::processKey);
+                }
+                logger.info("all responses received in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
                 sleep();
                 logger.info("stop communication");
-                send(socketChannel, "stop");
+                writeQueue.add(Frame.of(nextRequestId++, "stop"));
+                while (!flush(key)) {
+                    selector.select();
+                }
             }
         } catch (Exception ex) {
             logger.error("error", ex);
+        } finally {
+            writeQueue.clear();
         }
     }
 
-    private void send(SocketChannel socketChannel, String request) throws IOException {
-        var buffer = ByteBuffer.allocate(1000);
-        buffer.put(request.getBytes());
-        buffer.flip();
-        logger.info("sending to server");
-        socketChannel.write(buffer);
+    private boolean flush(SelectionKey key) throws IOException {
+        if (writeQueue.flush((SocketChannel) key.channel())) {
+            key.interestOps(SelectionKey.OP_READ);
+            return true;
+        }
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return false;
     }
 
-    private void handleResponse(SocketChannel socketChannel) throws IOException {
-        var selector = Selector.open();
-        socketChannel.register(selector, SelectionKey.OP_READ);
-        logger.info("waiting for response");
-        selector.select(selectionKey -> {
+    private void processKey(SelectionKey selectionKey) {
+        try {
+            if (selectionKey.isWritable()) {
+                flush(selectionKey);
+            }
             if (selectionKey.isReadable()) {
                 processServerResponse((SocketChannel) selectionKey.channel());
             }
-        });
+        } catch (IOException ex) {
+            throw new NetworkException(ex);
+        }
     }
 
-    private void processServerResponse(SocketChannel socketChannel) {
-        try {
-            logger.info("process ServerResponse");
-            var buffer = ByteBuffer.allocate(200);
+    private void processServerResponse(SocketChannel socketChannel) throws IOException {
+        var buffer = ByteBuffer.allocate(4096);
+        int read;
+        while ((read = socketChannel.read(buffer)) > 0) {
+            buffer.flip();
+            decoder.decode(buffer, this::onResponse);
+            buffer.clear();
+        }
+        if (read < 0) {
+            throw new IOException("connection closed by server, responses lost:" + inFlight.size());
+        }
+    }
 
-            var response = new StringBuilder();
-            while (socketChannel.read(buffer) > 0) {
-                buffer.flip();
-                var responsePart = StandardCharsets.UTF_8.decode(buffer).toString();
-                logger.info("responsePart: {}", responsePart);
-                response.append(responsePart);
-                buffer.flip();
-            }
-            logger.info("response: {}", response);
-        } catch (Exception ex) {
-            throw new NetworkException(ex);
+    private void onResponse(Frame response) {
+        var sentAt = inFlight.remove(response.requestId());
+        if (sentAt == null) {
+            logger.warn("unexpected response, id:{}", response.requestId());
+            return;
         }
+        logger.debug("response id:{}, {} us: {}", response.requestId(),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt), response.text().trim());
     }
 
     private static void sleep() {
@@ -0,0 +1,48 @@
+package ru.otus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполнители для блокирующих серверов.
+ */
+public final class ConnectionExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionExecutors.class);
+
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+
+    private ConnectionExecutors() {
+    }
+
+    /**
+     * Поток на каждое соединение без ограничения их числа.
+     * Если JVM поддерживает виртуальные потоки (JDK 21+), используются они.
+     * Иначе - платформенные потоки с уменьшенным стеком: это позволяет держать
+     * несколько тысяч простаивающих соединений, но не десятки тысяч.
+     */
+    public static ExecutorService perConnection() {
+        try {
+            var factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            var executor = (ExecutorService) factory.invoke();
+            logger.info("using virtual thread per connection");
+            return executor;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            logger.info("virtual threads are not available, using platform thread per connection");
+        } catch (Throwable e) {
+            throw new IllegalStateException("can't create virtual thread executor", e);
+        }
+        var counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            var thread = new Thread(null, task, "client-" + counter.incrementAndGet(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
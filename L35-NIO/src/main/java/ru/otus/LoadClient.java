@@ -0,0 +1,165 @@
+package ru.otus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Генератор нагрузки: открывает N соединений, держит их одновременно открытыми
+ * и делает по одному эхо-запросу на каждом.
+ * Печатает перцентили времени установки соединения и времени ответа.
+ * Соединение или ответ, не уложившиеся в таймаут, считаются ошибками и в перцентили не попадают.
+ */
+public class LoadClient extends Client {
+    private static final Logger logger = LoggerFactory.getLogger(LoadClient.class);
+    private static final int DEFAULT_TIMEOUT_MS = 10_000;
+    private static final long FAILED = -1;
+
+    private final int connectionsCount;
+    private final int timeoutMs;
+    private final Socket[] sockets;
+    private final BufferedReader[] readers;
+    private final PrintWriter[] writers;
+    private final long[] connectNanos;
+    private final long[] roundTripNanos;
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    public LoadClient(int connectionsCount, int timeoutMs) {
+        this.connectionsCount = connectionsCount;
+        this.timeoutMs = timeoutMs;
+        this.sockets = new Socket[connectionsCount];
+        this.readers = new BufferedReader[connectionsCount];
+        this.writers = new PrintWriter[connectionsCount];
+        this.connectNanos = new long[connectionsCount];
+        this.roundTripNanos = new long[connectionsCount];
+    }
+
+    /**
+     * Аргументы: [число соединений] [число потоков генератора] [таймаут соединения и ответа, мс].
+     */
+    public static void main(String[] args) {
+        var connectionsCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        var threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        var timeoutMs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TIMEOUT_MS;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            new LoadClient(connectionsCount, timeoutMs).run(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void run(ExecutorService executor) {
+        try {
+            forEachConnection(executor, this::connect);
+            logger.info("{} connections are open", connectionsCount);
+            forEachConnection(executor, this::echo);
+            report("connect", connectNanos);
+            report("round-trip", roundTripNanos);
+            logger.info("errors: {}, of them timeouts: {}", errors.get(), timeouts.get());
+        } finally {
+            forEachConnection(executor, this::stop);
+        }
+    }
+
+    private void forEachConnection(ExecutorService executor, IntConsumer action) {
+        var futures = IntStream.range(0, connectionsCount)
+                .mapToObj(idx -> CompletableFuture.runAsync(() -> action.accept(idx), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void connect(int idx) {
+        var socket = new Socket();
+        try {
+            var begin = System.nanoTime();
+            socket.connect(new InetSocketAddress(HOST, PORT), timeoutMs);
+            connectNanos[idx] = System.nanoTime() - begin;
+            // без таймаута зависший сервер держал бы readLine, а с ним и весь прогон, бесконечно
+            socket.setSoTimeout(timeoutMs);
+            writers[idx] = new PrintWriter(socket.getOutputStream(), true);
+            readers[idx] = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            sockets[idx] = socket;
+        } catch (IOException ex) {
+            connectNanos[idx] = FAILED;
+            fail("connect", idx, ex);
+            close(socket, idx);
+        }
+    }
+
+    private void echo(int idx) {
+        if (sockets[idx] == null) {
+            roundTripNanos[idx] = FAILED;
+            return;
+        }
+        try {
+            var begin = System.nanoTime();
+            writers[idx].println("load_" + idx);
+            var response = readers[idx].readLine();
+            roundTripNanos[idx] = System.nanoTime() - begin;
+            if (response == null) {
+                throw new IOException("connection closed, idx:" + idx);
+            }
+        } catch (IOException ex) {
+            roundTripNanos[idx] = FAILED;
+            fail("echo", idx, ex);
+            close(sockets[idx], idx);
+            sockets[idx] = null;
+        }
+    }
+
+    private void fail(String operation, int idx, IOException ex) {
+        errors.incrementAndGet();
+        if (ex instanceof SocketTimeoutException) {
+            timeouts.incrementAndGet();
+        }
+        logger.debug("{} failed, idx:{}", operation, idx, ex);
+    }
+
+    private void stop(int idx) {
+        if (sockets[idx] == null) {
+            return;
+        }
+        writers[idx].println("stop");
+        close(sockets[idx], idx);
+    }
+
+    private static void close(Socket socket, int idx) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            logger.error("can't close socket, idx:{}", idx, ex);
+        }
+    }
+
+    private static void report(String name, long[] nanos) {
+        var sorted = Arrays.stream(nanos).filter(value -> value != FAILED).sorted().toArray();
+        if (sorted.length == 0) {
+            logger.info("{} latency: no successful requests", name);
+            return;
+        }
+        logger.info("{} latency, us: p50:{}, p90:{}, p99:{}, p99.9:{}, max:{}", name,
+                percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1000);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        var idx = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(idx, 0)] / 1000;
+    }
+}
@@ -2,6 +2,12 @@ package ru.otus;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.protocol.DirectBufferPool;
+import ru.otus.protocol.Frame;
+import ru.otus.protocol.FrameDecoder;
+import ru.otus.protocol.FrameWriteQueue;
+import ru.otus.reactor.EchoRequestHandler;
+import ru.otus.reactor.MultiReactorServer;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -10,7 +16,8 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class ServerNIO {
@@ -19,8 +26,24 @@ public class ServerNIO {
     private static final int PORT_0 = 8080;
     private static final int PORT_1 = 8081;
 
+    private static final String MULTI_REACTOR_MODE = "multi";
+    private static final int BUSINESS_THREADS = 64;
+
+    private final DirectBufferPool bufferPool = new DirectBufferPool(4096, 64);
+
+    /**
+     * Без аргументов - исходный вариант с одним селектором,
+     * с аргументом "multi [workers]" - acceptor + пул рабочих селекторов.
+     */
     public static void main(String[] args) throws IOException {
-        new ServerNIO().go();
+        if (args.length > 0 && MULTI_REACTOR_MODE.equals(args[0])) {
+            var workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            var server = new MultiReactorServer(workers, BUSINESS_THREADS, new EchoRequestHandler(), PORT_0, PORT_1);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            server.start();
+        } else {
+            new ServerNIO().go();
+        }
     }
 
     private void go() throws IOException {
@@ -49,6 +72,8 @@ public class ServerNIO {
             logger.info("something happened, key:{}", selectedKey);
             if (selectedKey.isAcceptable()) {
                 acceptConnection(selectedKey);
+            } else if (selectedKey.isWritable()) {
+                writeClient(selectedKey);
             } else if (selectedKey.isReadable()) {
                 readWriteClient(selectedKey);
             }
@@ -65,63 +90,77 @@ public class ServerNIO {
         var socketChannel = serverSocketChannel.accept(); //The socket channel for the new connection
 
         socketChannel.configureBlocking(false);
-        socketChannel.register(selector, SelectionKey.OP_READ);
+        // кадр может прийти частями, недочитанный хвост хранится в декодере соединения
+        socketChannel.register(selector, SelectionKey.OP_READ, new ClientState(new FrameWriteQueue(bufferPool)));
         logger.info("socketChannel:{}", socketChannel);
     }
 
     private void readWriteClient(SelectionKey selectionKey) throws IOException {
         logger.info("read from client");
         var socketChannel = (SocketChannel) selectionKey.channel();
+        var state = (ClientState) selectionKey.attachment();
 
         try {
-            var requestFromClient = handleRequest(socketChannel);
-            if ("stop".equals(requestFromClient)) {
-                socketChannel.close();
-            } else {
-                var responseForClient = processClientRequest(requestFromClient);
-                sendResponse(socketChannel, responseForClient);
+            for (var requestFromClient : handleRequest(socketChannel, state.decoder())) {
+                if ("stop".equals(requestFromClient.text())) {
+                    close(selectionKey);
+                    return;
+                }
+                var responseForClient = processClientRequest(requestFromClient.text());
+                state.writeQueue().add(Frame.of(requestFromClient.requestId(), responseForClient));
             }
+            sendResponses(selectionKey);
         } catch (Exception ex) {
             logger.error("error sending response", ex);
-            socketChannel.close();
+            close(selectionKey);
         }
     }
 
-    private String handleRequest(SocketChannel socketChannel) throws IOException {
-        var buffer = ByteBuffer.allocate(5);
-        var inputBuffer = new StringBuilder(100);
+    private void writeClient(SelectionKey selectionKey) throws IOException {
+        logger.info("write to client");
+        try {
+            sendResponses(selectionKey);
+        } catch (Exception ex) {
+            logger.error("error sending response", ex);
+            close(selectionKey);
+        }
+    }
 
-        while (socketChannel.read(buffer) > 0) {
-            buffer.flip();
-            var input = StandardCharsets.UTF_8.decode(buffer).toString();
-            logger.info("from client: {} ", input);
+    private List<Frame> handleRequest(SocketChannel socketChannel, FrameDecoder decoder) throws IOException {
+        var buffer = ByteBuffer.allocate(1024);
+        var requests = new ArrayList<Frame>();
 
+        int read;
+        while ((read = socketChannel.read(buffer)) > 0) {
             buffer.flip();
-            inputBuffer.append(input);
+            decoder.decode(buffer, requests::add);
+            buffer.clear();
         }
-
-        String requestFromClient = inputBuffer.toString().replace("\n", "").replace("\r", "");
-        logger.info("requestFromClient: {} ", requestFromClient);
-        return requestFromClient;
+        if (read < 0) {
+            requests.add(Frame.of(0, "stop"));
+        }
+        logger.info("requestsFromClient: {} ", requests.size());
+        return requests;
     }
 
-    private void sendResponse(SocketChannel socketChannel, String responseForClient) throws IOException {
-        var buffer = ByteBuffer.allocate(5);
-        var response = responseForClient.getBytes();
-        for (byte b : response) {
-            buffer.put(b);
-            if (buffer.position() == buffer.limit()) {
-                buffer.flip();
-                socketChannel.write(buffer);
-                buffer.flip();
-            }
-        }
-        if (buffer.hasRemaining()) {
-            buffer.flip();
-            socketChannel.write(buffer);
+    /**
+     * Пишет, пока сокет принимает данные, и не крутится на заполненном буфере сокета:
+     * остаток ждет OP_WRITE, а чтение новых запросов приостанавливается, пока он не уйдет.
+     */
+    private void sendResponses(SelectionKey selectionKey) throws IOException {
+        var writeQueue = ((ClientState) selectionKey.attachment()).writeQueue();
+        if (writeQueue.flush((SocketChannel) selectionKey.channel())) {
+            selectionKey.interestOps(SelectionKey.OP_READ);
+        } else {
+            selectionKey.interestOps(SelectionKey.OP_WRITE);
         }
     }
 
+    private void close(SelectionKey selectionKey) throws IOException {
+        ((ClientState) selectionKey.attachment()).writeQueue().clear();
+        selectionKey.channel().close();
+    }
+
     private String processClientRequest(String input) {
         if ("wait".equals(input)) {
             logger.info("waiting...");
@@ -137,4 +176,10 @@ public class ServerNIO {
             Thread.currentThread().interrupt();
         }
     }
+
+    private record ClientState(FrameDecoder decoder, FrameWriteQueue writeQueue) {
+        ClientState(FrameWriteQueue writeQueue) {
+            this(new FrameDecoder(), writeQueue);
+        }
+    }
 }
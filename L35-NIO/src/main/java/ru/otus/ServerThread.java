@@ -14,14 +14,27 @@ import java.util.concurrent.Executors;
 public class ServerThread {
     private static final Logger logger = LoggerFactory.getLogger(ServerThread.class);
     private static final int PORT = 8080;
-    private final ExecutorService executor = Executors.newFixedThreadPool(10);
+    private static final int BACKLOG = 1000;
+    private static final String PER_CONNECTION_MODE = "per-connection";
 
+    private final ExecutorService executor;
+
+    public ServerThread(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Без аргументов - пул из 10 потоков, с аргументом "per-connection" - поток на соединение.
+     */
     public static void main(String[] args) {
-        new ServerThread().go();
+        var executor = args.length > 0 && PER_CONNECTION_MODE.equals(args[0])
+                ? ConnectionExecutors.perConnection()
+                : Executors.newFixedThreadPool(10);
+        new ServerThread(executor).go();
     }
 
     private void go() {
-        try (var serverSocket = new ServerSocket(PORT)) {
+        try (var serverSocket = new ServerSocket(PORT, BACKLOG)) {
             while (!Thread.currentThread().isInterrupted()) {
                 logger.info("waiting for client connection");
                 var clientSocket = serverSocket.accept();
@@ -0,0 +1,18 @@
+package ru.otus.protocol;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Сообщение протокола. По requestId клиент сопоставляет ответ с запросом,
+ * поэтому ответы могут приходить в любом порядке.
+ */
+public record Frame(int requestId, byte[] payload) {
+
+    public static Frame of(int requestId, String text) {
+        return new Frame(requestId, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String text() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.otus.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Формат кадра: [длина payload: int][requestId: int][payload].
+ */
+public final class FrameCodec {
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+    public static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+    private FrameCodec() {
+    }
+
+    public static ByteBuffer encode(Frame frame) {
+        return ByteBuffer.allocate(HEADER_SIZE + frame.payload().length)
+                .putInt(frame.payload().length)
+                .putInt(frame.requestId())
+                .put(frame.payload())
+                .flip();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.otus.protocol;
+
+import ru.otus.NetworkException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Собирает кадры из произвольно нарезанного потока байт.
+ * Хранит недочитанный хвост между вызовами, поэтому нужен свой экземпляр на соединение.
+ */
+public class FrameDecoder {
+    private ByteBuffer cumulation = ByteBuffer.allocate(0);
+
+    /**
+     * @param in буфер в режиме чтения, вычитывается полностью
+     */
+    public void decode(ByteBuffer in, Consumer<Frame> out) {
+        if (cumulation.position() == 0) {
+            // хвоста нет - разбираем прямо из входного буфера, копируем только остаток
+            decodeFrames(in, out);
+            if (in.hasRemaining()) {
+                ensureCapacity(in.remaining());
+                cumulation.put(in);
+            }
+            return;
+        }
+        ensureCapacity(in.remaining());
+        cumulation.put(in).flip();
+        decodeFrames(cumulation, out);
+        cumulation.compact();
+    }
+
+    private void decodeFrames(ByteBuffer buffer, Consumer<Frame> out) {
+        while (buffer.remaining() >= FrameCodec.HEADER_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            if (length < 0 || length > FrameCodec.MAX_PAYLOAD_SIZE) {
+                throw new NetworkException(new IOException("invalid frame length:" + length));
+            }
+            if (buffer.remaining() < FrameCodec.HEADER_SIZE + length) {
+                return;
+            }
+            buffer.getInt();
+            int requestId = buffer.getInt();
+            var payload = new byte[length];
+            buffer.get(payload);
+            out.accept(new Frame(requestId, payload));
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (cumulation.remaining() >= size) {
+            return;
+        }
+        var newCapacity = Math.max(cumulation.position() + size, cumulation.capacity() * 2);
+        cumulation = ByteBuffer.allocate(newCapacity).put(cumulation.flip());
+    }
+}
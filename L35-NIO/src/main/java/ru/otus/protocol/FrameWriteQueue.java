@@ -0,0 +1,109 @@
+package ru.otus.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Очередь исходящих кадров соединения на пуловых direct-буферах.
+ * Мелкие кадры, добавленные между двумя flush, дописываются в один буфер,
+ * а накопившиеся буферы уходят одним gathering write.
+ * Не потокобезопасна.
+ */
+public class FrameWriteQueue {
+    private static final int MAX_GATHER = 16;
+
+    private final DirectBufferPool bufferPool;
+    private final Deque<ByteBuffer> ready = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private ByteBuffer tail;
+    private long bytesWritten;
+
+    public FrameWriteQueue(DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    public void add(Frame frame) {
+        var payload = frame.payload();
+        if (tail == null || tail.remaining() < FrameCodec.HEADER_SIZE) {
+            sealTail();
+            tail = bufferPool.acquire();
+        }
+        tail.putInt(payload.length).putInt(frame.requestId());
+        int offset = 0;
+        while (offset < payload.length) {
+            if (!tail.hasRemaining()) {
+                sealTail();
+                tail = bufferPool.acquire();
+            }
+            int length = Math.min(tail.remaining(), payload.length - offset);
+            tail.put(payload, offset, length);
+            offset += length;
+        }
+    }
+
+    public boolean isEmpty() {
+        return ready.isEmpty() && (tail == null || tail.position() == 0);
+    }
+
+    /**
+     * @return true, если все отправлено; false - буфер сокета заполнен, нужно ждать OP_WRITE
+     */
+    public boolean flush(GatheringByteChannel channel) throws IOException {
+        sealTail();
+        while (!ready.isEmpty()) {
+            int count = 0;
+            long gathered = 0;
+            for (var buffer : ready) {
+                gather[count++] = buffer;
+                gathered += buffer.remaining();
+                if (count == MAX_GATHER) {
+                    break;
+                }
+            }
+            long written = channel.write(gather, 0, count);
+            bytesWritten += written;
+            Arrays.fill(gather, 0, count, null);
+            while (!ready.isEmpty() && !ready.peekFirst().hasRemaining()) {
+                bufferPool.release(ready.pollFirst());
+            }
+            if (written < gathered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сколько байт отправлено за все время.
+     */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    public void clear() {
+        if (tail != null) {
+            bufferPool.release(tail);
+            tail = null;
+        }
+        ByteBuffer buffer;
+        while ((buffer = ready.poll()) != null) {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void sealTail() {
+        if (tail == null) {
+            return;
+        }
+        if (tail.position() == 0) {
+            bufferPool.release(tail);
+        } else {
+            ready.add(tail.flip());
+        }
+        tail = null;
+    }
+}
@@ -0,0 +1,167 @@
+package ru.otus.reactor;
+
+import ru.otus.protocol.DirectBufferPool;
+import ru.otus.protocol.Frame;
+import ru.otus.protocol.FrameDecoder;
+import ru.otus.protocol.FrameWriteQueue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Состояние одного клиентского соединения.
+ * Все методы вызываются только из потока WorkerReactor, которому принадлежит соединение,
+ * поэтому синхронизация не нужна.
+ */
+class Connection {
+    /**
+     * Сколько запросов одного клиента может обрабатываться одновременно.
+     * При достижении лимита соединение перестает читаться, пока ответы не уйдут.
+     */
+    private static final int MAX_IN_FLIGHT = 1024;
+
+    private final long id;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final FrameWriteQueue writeQueue;
+    private final ConnectionStats stats;
+    private final Runnable onClose;
+    private HashedWheelTimer.Timeout idleTimeout;
+    private int inFlight;
+    private boolean readSuspended;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    Connection(long id, SocketChannel channel, SelectionKey key, DirectBufferPool bufferPool,
+               ConnectionStats stats, Runnable onClose) {
+        this.id = id;
+        this.channel = channel;
+        this.key = key;
+        this.writeQueue = new FrameWriteQueue(bufferPool);
+        this.stats = stats;
+        this.onClose = onClose;
+    }
+
+    long id() {
+        return id;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    ConnectionStats stats() {
+        return stats;
+    }
+
+    boolean isOpen() {
+        return !closed;
+    }
+
+    void idleTimeout(HashedWheelTimer.Timeout idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    int read(ByteBuffer buffer) throws IOException {
+        int read = channel.read(buffer);
+        if (read > 0) {
+            stats.onRead(read, System.nanoTime());
+        }
+        return read;
+    }
+
+    FrameDecoder decoder() {
+        return decoder;
+    }
+
+    boolean hasRequestsInFlight() {
+        return inFlight > 0;
+    }
+
+    boolean hasPendingWrites() {
+        return !writeQueue.isEmpty();
+    }
+
+    boolean isReadSuspended() {
+        return readSuspended;
+    }
+
+    void requestStarted() {
+        stats.onMessageRead();
+        inFlight++;
+        if (inFlight >= MAX_IN_FLIGHT && !readSuspended) {
+            readSuspended = true;
+            key.interestOpsAnd(~SelectionKey.OP_READ);
+        }
+    }
+
+    void requestCompleted() {
+        inFlight--;
+        if (readSuspended && inFlight <= MAX_IN_FLIGHT / 2 && key.isValid()) {
+            readSuspended = false;
+            key.interestOpsOr(SelectionKey.OP_READ);
+        }
+    }
+
+    void write(Frame frame) {
+        if (writeQueue.isEmpty()) {
+            stats.onWritePending(System.nanoTime());
+        }
+        writeQueue.add(frame);
+        stats.onMessageWritten();
+    }
+
+    /**
+     * true, если соединение нужно поставить в очередь на flush (еще не стоит в ней).
+     */
+    boolean markFlushScheduled() {
+        if (flushScheduled) {
+            return false;
+        }
+        flushScheduled = true;
+        return true;
+    }
+
+    /**
+     * Пишет, пока сокет принимает данные. Если буфер сокета заполнен,
+     * подписывается на OP_WRITE и продолжит, когда селектор сообщит о готовности.
+     */
+    void flush() throws IOException {
+        flushScheduled = false;
+        if (closed) {
+            return;
+        }
+        long writtenBefore = writeQueue.bytesWritten();
+        boolean flushed = writeQueue.flush(channel);
+        long written = writeQueue.bytesWritten() - writtenBefore;
+        if (written > 0) {
+            stats.onWrite(written, System.nanoTime());
+        }
+        if (flushed) {
+            key.interestOpsAnd(~SelectionKey.OP_WRITE);
+        } else {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+        }
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (idleTimeout != null) {
+            idleTimeout.cancel();
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // соединение все равно закрываем
+        }
+        writeQueue.clear();
+        onClose.run();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.otus.reactor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Счетчики соединения. Пишет в них только поток селектора соединения,
+ * читают - JMX-клиенты, поэтому поля volatile без атомарных операций.
+ */
+public class ConnectionStats implements ConnectionStatsMBean {
+    private final String remoteAddress;
+    private volatile long bytesRead;
+    private volatile long bytesWritten;
+    private volatile long messagesRead;
+    private volatile long messagesWritten;
+    private volatile long lastReadNanos;
+    private volatile long lastWriteNanos;
+
+    ConnectionStats(String remoteAddress, long nowNanos) {
+        this.remoteAddress = remoteAddress;
+        this.lastReadNanos = nowNanos;
+        this.lastWriteNanos = nowNanos;
+    }
+
+    void onRead(int bytes, long nowNanos) {
+        bytesRead += bytes;
+        lastReadNanos = nowNanos;
+    }
+
+    void onMessageRead() {
+        messagesRead++;
+    }
+
+    void onWrite(long bytes, long nowNanos) {
+        bytesWritten += bytes;
+        lastWriteNanos = nowNanos;
+    }
+
+    void onMessageWritten() {
+        messagesWritten++;
+    }
+
+    /**
+     * Отсчет write-idle начинается, когда в пустой очереди записи появляются данные.
+     */
+    void onWritePending(long nowNanos) {
+        lastWriteNanos = nowNanos;
+    }
+
+    long lastReadNanos() {
+        return lastReadNanos;
+    }
+
+    long lastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public long getMessagesRead() {
+        return messagesRead;
+    }
+
+    @Override
+    public long getMessagesWritten() {
+        return messagesWritten;
+    }
+
+    @Override
+    public long getReadIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReadNanos);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.otus.reactor;
+
+public interface ConnectionStatsMBean {
+    String getRemoteAddress();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getMessagesRead();
+
+    long getMessagesWritten();
+
+    long getReadIdleMillis();
+}
@@ -0,0 +1,30 @@
+package ru.otus.reactor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Та же логика, что и в ServerNIO.processClientRequest: эхо, а на "wait" - ожидание минуту.
+ */
+public class EchoRequestHandler implements RequestHandler {
+    private static final Logger logger = LoggerFactory.getLogger(EchoRequestHandler.class);
+
+    @Override
+    public String handle(String request) {
+        if ("wait".equals(request)) {
+            logger.info("waiting...");
+            sleep();
+        }
+        return String.format("echo: %s%n", request);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.otus.reactor;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Таймер "хешированное колесо" для потока селектора.
+ * Добавление и отмена - O(1), точность - один тик. Не потокобезопасен:
+ * используется только из потока своего WorkerReactor, который вызывает advance()
+ * после каждого select() и спит в select() не дольше millisToNextTick().
+ */
+class HashedWheelTimer {
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout[] wheel;
+    private final int mask;
+    private final Queue<Timeout> expired = new ArrayDeque<>();
+    private long tick;
+    private int size;
+
+    HashedWheelTimer(long tickNanos, int wheelSize, long nowNanos) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two:" + wheelSize);
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = nowNanos;
+        this.wheel = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    Timeout schedule(long deadlineNanos, Runnable task) {
+        // округляем вверх, чтобы таймаут не сработал раньше срока
+        long deadlineTick = Math.max(ceilDiv(deadlineNanos - startNanos, tickNanos), tick + 1);
+        var timeout = new Timeout(task, (deadlineTick - tick) / wheel.length);
+        timeout.bucket = (int) (deadlineTick & mask);
+        timeout.next = wheel[timeout.bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        wheel[timeout.bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Выполняет задачи всех тиков, наступивших к моменту nowNanos.
+     */
+    void advance(long nowNanos) {
+        long currentTick = (nowNanos - startNanos) / tickNanos;
+        while (tick <= currentTick && size > 0) {
+            var timeout = wheel[(int) (tick & mask)];
+            while (timeout != null) {
+                var next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    unlink(timeout);
+                    expired.add(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            tick++;
+            // задачи выполняются после обхода корзины: они могут ставить и отменять таймауты
+            Timeout expiredTimeout;
+            while ((expiredTimeout = expired.poll()) != null) {
+                if (!expiredTimeout.cancelled) {
+                    expiredTimeout.task.run();
+                }
+            }
+        }
+        if (size == 0) {
+            tick = Math.max(tick, currentTick + 1);
+        }
+    }
+
+    /**
+     * Сколько можно ждать в select(); 0 - таймеров нет, ждать без ограничения.
+     */
+    long millisToNextTick(long nowNanos) {
+        if (size == 0) {
+            return 0;
+        }
+        long waitNanos = startNanos + tick * tickNanos - nowNanos;
+        return Math.max(1, ceilDiv(waitNanos, 1_000_000));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheel[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    class Timeout {
+        private final Runnable task;
+        private long remainingRounds;
+        private int bucket;
+        private Timeout prev;
+        private Timeout next;
+        private boolean cancelled;
+
+        private Timeout(Runnable task, long remainingRounds) {
+            this.task = task;
+            this.remainingRounds = remainingRounds;
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (bucket >= 0) {
+                unlink(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.otus.reactor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Регистрация MBean-ов сервера. Ошибки JMX не должны ронять обработку соединений,
+ * поэтому только логируются.
+ */
+final class Jmx {
+    private static final Logger logger = LoggerFactory.getLogger(Jmx.class);
+
+    private static final String DOMAIN = "ru.otus.reactor";
+
+    private Jmx() {
+    }
+
+    static ObjectName serverName() {
+        return objectName(DOMAIN + ":type=Server");
+    }
+
+    static ObjectName connectionName(long connectionId) {
+        return objectName(DOMAIN + ":type=Connection,id=" + connectionId);
+    }
+
+    static void register(ObjectName name, Object mbean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+        } catch (JMException e) {
+            logger.warn("can't register mbean:{}", name, e);
+        }
+    }
+
+    static void unregister(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            logger.warn("can't unregister mbean:{}", name, e);
+        }
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(name, e);
+        }
+    }
+}
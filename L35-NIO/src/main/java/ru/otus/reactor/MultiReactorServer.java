@@ -0,0 +1,174 @@
+package ru.otus.reactor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.NetworkException;
+import ru.otus.protocol.DirectBufferPool;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервер по схеме multi-reactor: один acceptor принимает соединения
+ * и по кругу раздает их N рабочим селекторам.
+ * Статистика доступна через JMX: ru.otus.reactor:type=Server и ru.otus.reactor:type=Connection,id=N.
+ */
+public class MultiReactorServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MultiReactorServer.class);
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final int[] ports;
+    private final WorkerReactor[] workers;
+    private final List<Thread> threads = new ArrayList<>();
+    private final ExecutorService businessExecutor;
+    private final ServerStats stats;
+    private volatile Selector acceptSelector;
+    private volatile boolean acceptPaused;
+    private int nextWorker;
+    private long nextConnectionId;
+
+    public MultiReactorServer(int workersCount, int businessThreads, RequestHandler handler, int... ports) {
+        this(workersCount, businessThreads, handler, ServerLimits.DEFAULT, ports);
+    }
+
+    public MultiReactorServer(int workersCount, int businessThreads, RequestHandler handler,
+                              ServerLimits limits, int... ports) {
+        if (workersCount < 1) {
+            throw new IllegalArgumentException("workersCount must be positive:" + workersCount);
+        }
+        this.ports = ports.clone();
+        this.businessExecutor = Executors.newFixedThreadPool(businessThreads);
+        this.stats = new ServerStats(limits.maxConnections());
+        var bufferPool = new DirectBufferPool(BUFFER_SIZE, workersCount * 64);
+        this.workers = new WorkerReactor[workersCount];
+        for (int idx = 0; idx < workersCount; idx++) {
+            workers[idx] = new WorkerReactor(bufferPool, handler, businessExecutor, limits, stats,
+                    this::onConnectionClosed);
+        }
+    }
+
+    public ServerStatsMBean stats() {
+        return stats;
+    }
+
+    public void start() {
+        Jmx.register(Jmx.serverName(), stats);
+        for (int idx = 0; idx < workers.length; idx++) {
+            var thread = new Thread(workers[idx], "worker-reactor-" + idx);
+            threads.add(thread);
+            thread.start();
+        }
+        var acceptor = new Thread(this::accept, "acceptor");
+        threads.add(acceptor);
+        acceptor.start();
+    }
+
+    private void accept() {
+        var serverSocketChannels = new ArrayList<ServerSocketChannel>();
+        try (var selector = Selector.open()) {
+            acceptSelector = selector;
+            for (var port : ports) {
+                var serverSocketChannel = ServerSocketChannel.open();
+                serverSocketChannels.add(serverSocketChannel);
+                serverSocketChannel.configureBlocking(false);
+                serverSocketChannel.bind(new InetSocketAddress(port));
+                serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+                logger.info("listening on port:{}", port);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select(this::acceptConnection);
+                if (acceptPaused && stats.hasCapacity()) {
+                    setAcceptEnabled(selector, true);
+                }
+            }
+        } catch (IOException e) {
+            throw new NetworkException(e);
+        } finally {
+            serverSocketChannels.forEach(MultiReactorServer::closeQuietly);
+        }
+    }
+
+    private void acceptConnection(SelectionKey key) {
+        try {
+            var serverSocketChannel = (ServerSocketChannel) key.channel();
+            var socketChannel = serverSocketChannel.accept();
+            if (socketChannel == null) {
+                return;
+            }
+            socketChannel.configureBlocking(false);
+            if (stats.onAccepted()) {
+                setAcceptEnabled(key.selector(), false);
+            }
+            var worker = workers[nextWorker];
+            nextWorker = (nextWorker + 1) % workers.length;
+            worker.register(socketChannel, nextConnectionId++);
+        } catch (IOException e) {
+            logger.error("accept error", e);
+        }
+    }
+
+    /**
+     * Пока лимит соединений исчерпан, OP_ACCEPT снят: новые клиенты ждут в backlog ядра,
+     * а не занимают дескрипторы процесса.
+     */
+    private void setAcceptEnabled(Selector selector, boolean enabled) {
+        if (acceptPaused != enabled) {
+            return;
+        }
+        acceptPaused = !enabled;
+        if (enabled) {
+            logger.info("accept resumed, active connections:{}", stats.getActiveConnections());
+        } else {
+            stats.onAcceptPaused();
+            logger.warn("connection limit reached:{}, accept paused", stats.getMaxConnections());
+        }
+        for (var key : selector.keys()) {
+            key.interestOps(enabled ? SelectionKey.OP_ACCEPT : 0);
+        }
+    }
+
+    /**
+     * Вызывается из потоков рабочих селекторов.
+     */
+    private void onConnectionClosed() {
+        stats.onClosed();
+        var selector = acceptSelector;
+        if (acceptPaused && selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void close() {
+        Jmx.unregister(Jmx.serverName());
+        threads.forEach(Thread::interrupt);
+        businessExecutor.shutdownNow();
+        try {
+            for (var thread : threads) {
+                thread.join();
+            }
+            if (!businessExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("business executor did not terminate");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(ServerSocketChannel serverSocketChannel) {
+        try {
+            serverSocketChannel.close();
+        } catch (IOException e) {
+            logger.error("can't close server channel", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.otus.reactor;
+
+/**
+ * Бизнес-обработка запроса. Выполняется в отдельном пуле, а не в потоке селектора,
+ * поэтому может быть медленной.
+ */
+@FunctionalInterface
+public interface RequestHandler {
+    String handle(String request);
+}
@@ -0,0 +1,25 @@
+package ru.otus.reactor;
+
+import java.time.Duration;
+
+/**
+ * @param maxConnections    при достижении лимита acceptor перестает принимать соединения,
+ *                          новые клиенты ждут в backlog сокета
+ * @param readIdleTimeout   соединение закрывается, если клиент столько молчит
+ *                          и у него нет запросов в обработке; Duration.ZERO - не ограничено
+ * @param writeIdleTimeout  соединение закрывается, если ответы не удается отправить
+ *                          столько времени (клиент не читает); Duration.ZERO - не ограничено
+ */
+public record ServerLimits(int maxConnections, Duration readIdleTimeout, Duration writeIdleTimeout) {
+    public static final ServerLimits DEFAULT =
+            new ServerLimits(10_000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+    public ServerLimits {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive:" + maxConnections);
+        }
+        if (readIdleTimeout.isNegative() || writeIdleTimeout.isNegative()) {
+            throw new IllegalArgumentException("idle timeouts must not be negative");
+        }
+    }
+}
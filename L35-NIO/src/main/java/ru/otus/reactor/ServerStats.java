@@ -0,0 +1,75 @@
+package ru.otus.reactor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ServerStats implements ServerStatsMBean {
+    private final int maxConnections;
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder acceptPauses = new LongAdder();
+    private final LongAdder readIdleClosed = new LongAdder();
+    private final LongAdder writeIdleClosed = new LongAdder();
+
+    ServerStats(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return true, если лимит соединений достигнут и прием нужно приостановить
+     */
+    boolean onAccepted() {
+        acceptedConnections.increment();
+        return activeConnections.incrementAndGet() >= maxConnections;
+    }
+
+    void onClosed() {
+        activeConnections.decrementAndGet();
+    }
+
+    boolean hasCapacity() {
+        return activeConnections.get() < maxConnections;
+    }
+
+    void onAcceptPaused() {
+        acceptPauses.increment();
+    }
+
+    void onReadIdleClosed() {
+        readIdleClosed.increment();
+    }
+
+    void onWriteIdleClosed() {
+        writeIdleClosed.increment();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public long getAcceptedConnections() {
+        return acceptedConnections.sum();
+    }
+
+    @Override
+    public long getAcceptPauses() {
+        return acceptPauses.sum();
+    }
+
+    @Override
+    public long getReadIdleClosed() {
+        return readIdleClosed.sum();
+    }
+
+    @Override
+    public long getWriteIdleClosed() {
+        return writeIdleClosed.sum();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.otus.reactor;
+
+public interface ServerStatsMBean {
+    int getActiveConnections();
+
+    int getMaxConnections();
+
+    long getAcceptedConnections();
+
+    long getAcceptPauses();
+
+    long getReadIdleClosed();
+
+    long getWriteIdleClosed();
+}
@@ -0,0 +1,275 @@
+package ru.otus.reactor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.NetworkException;
+import ru.otus.protocol.DirectBufferPool;
+import ru.otus.protocol.Frame;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Селектор, обслуживающий часть соединений сервера.
+ * Чтение и запись выполняются в его потоке, бизнес-обработка - в businessExecutor.
+ * Другие потоки общаются с ним только через очередь задач и selector.wakeup().
+ */
+class WorkerReactor implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerReactor.class);
+
+    private static final String STOP = "stop";
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int WHEEL_SIZE = 512;
+    // сколько буферов читается из одного соединения за одно событие, чтобы не задерживать остальные
+    private static final int MAX_READS_PER_EVENT = 4;
+
+    private final Selector selector;
+    private final DirectBufferPool bufferPool;
+    private final RequestHandler handler;
+    private final Executor businessExecutor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Queue<Connection> flushQueue = new ArrayDeque<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(TICK_NANOS, WHEEL_SIZE, System.nanoTime());
+    private final long readIdleNanos;
+    private final long writeIdleNanos;
+    private final ServerStats serverStats;
+    private final Runnable onConnectionClosed;
+
+    WorkerReactor(DirectBufferPool bufferPool, RequestHandler handler, Executor businessExecutor,
+                  ServerLimits limits, ServerStats serverStats, Runnable onConnectionClosed) {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new NetworkException(e);
+        }
+        this.bufferPool = bufferPool;
+        this.handler = handler;
+        this.businessExecutor = businessExecutor;
+        this.readIdleNanos = limits.readIdleTimeout().toNanos();
+        this.writeIdleNanos = limits.writeIdleTimeout().toNanos();
+        this.serverStats = serverStats;
+        this.onConnectionClosed = onConnectionClosed;
+    }
+
+    /**
+     * Вызывается из потока acceptor-а.
+     */
+    void register(SocketChannel socketChannel, long connectionId) {
+        execute(() -> {
+            try {
+                var key = socketChannel.register(selector, SelectionKey.OP_READ);
+                var now = System.nanoTime();
+                var stats = new ConnectionStats(String.valueOf(socketChannel.getRemoteAddress()), now);
+                var connection = new Connection(connectionId, socketChannel, key, bufferPool, stats,
+                        () -> onClosed(connectionId));
+                key.attach(connection);
+                Jmx.register(Jmx.connectionName(connectionId), stats);
+                scheduleIdleCheck(connection, now);
+                logger.debug("registered:{}", socketChannel);
+            } catch (IOException e) {
+                logger.error("can't register channel:{}", socketChannel, e);
+                closeQuietly(socketChannel);
+                onConnectionClosed.run();
+            }
+        });
+    }
+
+    private void onClosed(long connectionId) {
+        Jmx.unregister(Jmx.connectionName(connectionId));
+        onConnectionClosed.run();
+    }
+
+    private void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try (selector) {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    selector.select(this::performIO, timer.millisToNextTick(System.nanoTime()));
+                    runTasks();
+                    flushPending();
+                    timer.advance(System.nanoTime());
+                }
+            } finally {
+                for (var key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new NetworkException(e);
+        }
+    }
+
+    /**
+     * Вместо перепланирования таймаута на каждое чтение проверка ставится
+     * на ближайший возможный срок и при срабатывании сверяется с временем последней активности.
+     */
+    private void scheduleIdleCheck(Connection connection, long nowNanos) {
+        long deadline = Long.MAX_VALUE;
+        if (readIdleNanos > 0) {
+            deadline = connection.stats().lastReadNanos() + readIdleNanos;
+            if (deadline <= nowNanos) {
+                // срок прошел, но клиент ждет ответа - проверим еще раз позже
+                deadline = nowNanos + readIdleNanos;
+            }
+        }
+        if (writeIdleNanos > 0) {
+            var writeDeadline = connection.hasPendingWrites()
+                    ? connection.stats().lastWriteNanos() + writeIdleNanos
+                    : nowNanos + writeIdleNanos;
+            deadline = Math.min(deadline, writeDeadline);
+        }
+        if (deadline != Long.MAX_VALUE) {
+            connection.idleTimeout(timer.schedule(deadline, () -> checkIdle(connection)));
+        }
+    }
+
+    private void checkIdle(Connection connection) {
+        if (!connection.isOpen()) {
+            return;
+        }
+        var now = System.nanoTime();
+        if (writeIdleNanos > 0 && connection.hasPendingWrites()
+                && now - connection.stats().lastWriteNanos() >= writeIdleNanos) {
+            logger.info("write idle timeout, closing connection:{}", connection.channel());
+            serverStats.onWriteIdleClosed();
+            connection.close();
+            return;
+        }
+        // клиент, ждущий ответа на долгий запрос, не считается молчащим
+        var waitingForResponse = connection.hasRequestsInFlight() || connection.hasPendingWrites();
+        if (readIdleNanos > 0 && !waitingForResponse && now - connection.stats().lastReadNanos() >= readIdleNanos) {
+            logger.info("read idle timeout, closing connection:{}", connection.channel());
+            serverStats.onReadIdleClosed();
+            connection.close();
+            return;
+        }
+        scheduleIdleCheck(connection, now);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Ответы, готовые к моменту пробуждения селектора, отправляются вместе.
+     */
+    private void flushPending() {
+        Connection connection;
+        while ((connection = flushQueue.poll()) != null) {
+            try {
+                connection.flush();
+            } catch (IOException ex) {
+                logger.error("error sending response, connection:{}", connection.channel(), ex);
+                connection.close();
+            }
+        }
+    }
+
+    private void performIO(SelectionKey key) {
+        var connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (Exception ex) {
+            logger.error("error processing connection:{}", connection.channel(), ex);
+            connection.close();
+        }
+    }
+
+    /**
+     * Снятие OP_READ действует только со следующего select, поэтому цикл чтения сам прекращается,
+     * как только соединение достигло лимита запросов в обработке. Превысить лимит можно не больше,
+     * чем на число кадров в одном буфере.
+     */
+    private void read(Connection connection) throws IOException {
+        var buffer = bufferPool.acquire();
+        try {
+            int read;
+            int reads = 0;
+            while (connection.isOpen() && !connection.isReadSuspended() && reads++ < MAX_READS_PER_EVENT
+                    && (read = connection.read(buffer)) != 0) {
+                if (read < 0) {
+                    connection.close();
+                    return;
+                }
+                buffer.flip();
+                connection.decoder().decode(buffer, frame -> onFrame(connection, frame));
+                buffer.clear();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void onFrame(Connection connection, Frame frame) {
+        if (!connection.isOpen()) {
+            return;
+        }
+        var request = frame.text();
+        logger.debug("request:{}, id:{}", request, frame.requestId());
+        if (STOP.equals(request)) {
+            connection.close();
+            return;
+        }
+        connection.requestStarted();
+        try {
+            businessExecutor.execute(() -> {
+                var response = handle(request);
+                execute(() -> complete(connection, frame.requestId(), response));
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.error("business executor rejected request, connection:{}", connection.channel());
+            connection.close();
+        }
+    }
+
+    private String handle(String request) {
+        try {
+            return handler.handle(request);
+        } catch (Exception ex) {
+            logger.error("error handling request:{}", request, ex);
+            return String.format("error: %s%n", ex.getMessage());
+        }
+    }
+
+    private void complete(Connection connection, int requestId, String response) {
+        connection.requestCompleted();
+        if (!connection.isOpen()) {
+            return;
+        }
+        connection.write(Frame.of(requestId, response));
+        if (connection.markFlushScheduled()) {
+            flushQueue.add(connection);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel socketChannel) {
+        try {
+            socketChannel.close();
+        } catch (IOException e) {
+            // канал не зарегистрирован, закрываем как есть
+        }
+    }
+}
@@ -2,4 +2,7 @@ dependencies {
     implementation ("com.google.code.findbugs:jsr305")
     implementation ("ch.qos.logback:logback-classic")
     implementation ("io.netty:netty-all")
+
+    testImplementation ("org.openjdk.jmh:jmh-core")
+    testAnnotationProcessor ("org.openjdk.jmh:jmh-generator-annprocess")
 }
@@ -2,21 +2,20 @@ package ru.otus.echo.server;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.transport.ServerOptions;
 
 import javax.annotation.Nonnull;
-import java.net.InetSocketAddress;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 
 /*
 --add-exports java.base/jdk.internal.misc=ALL-UNNAMED -Dio.netty.tryReflectionSetAccessible=true
+Транспорт и опции - через system properties, см. ServerOptions.
  */
 public class EchoServer {
     private static final Logger logger = LoggerFactory.getLogger(EchoServer.class);
@@ -30,7 +29,8 @@ public class EchoServer {
     }
 
     private void start() throws InterruptedException {
-        var eventLoopGroup = new NioEventLoopGroup(THREAD_POOL_SIZE,
+        var options = ServerOptions.fromSystemProperties();
+        var eventLoopGroup = options.transport().newEventLoopGroup(Math.max(THREAD_POOL_SIZE, options.acceptorThreads()),
                 new ThreadFactory() {
                     private final AtomicLong threadIdGenerator = new AtomicLong(0);
                     @Override
@@ -41,28 +41,23 @@ public class EchoServer {
                     }
                 });
         try {
-            var serverBootstrap = new ServerBootstrap();
+            var echoServerHandler = new EchoServerHandler(longActionExecutor);
+            var serverBootstrap = options.configure(new ServerBootstrap());
             serverBootstrap.group(eventLoopGroup)
-                    .channel(NioServerSocketChannel.class)
-                    .localAddress(new InetSocketAddress(PORT))
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         public void initChannel(SocketChannel ch) {
-                            ch.pipeline().addLast(new EchoServerHandler(longActionExecutor));
+                            ch.pipeline().addLast(echoServerHandler);
                         }
                     });
 
-            var channelFuture = serverBootstrap.bind();
-            channelFuture.addListener(future -> {
-                if (future.isSuccess()) {
-                    logger.info("waiting for client...");
-                } else {
-                    logger.error("error: {}", future.cause().getMessage());
-                }
-            });
             logger.info("binding...");
+            var channels = options.bind(serverBootstrap, PORT);
+            logger.info("waiting for client...");
 
-            channelFuture.channel().closeFuture().sync();
+            for (var channel : channels) {
+                channel.closeFuture().sync();
+            }
         } finally {
             eventLoopGroup.shutdownGracefully().sync();
         }
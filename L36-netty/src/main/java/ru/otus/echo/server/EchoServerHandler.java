@@ -1,53 +1,56 @@
 package ru.otus.echo.server;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.PooledByteBufAllocator;
-import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
-import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Эхо без копирования: входящий ByteBuf (он уже выделен аллокатором канала)
+ * отправляется обратно как есть, владение буфером переходит к ctx.write.
+ * Содержимое разбирается только для проверки на команду "wait".
+ * Состояния нет, поэтому один экземпляр обслуживает все каналы.
+ */
+@ChannelHandler.Sharable
 public class EchoServerHandler extends ChannelInboundHandlerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(EchoServerHandler.class);
-    private final ByteBuf bufForInMsg = new PooledByteBufAllocator(true).directBuffer(5);
+    private static final byte[] WAIT_COMMAND = "wait".getBytes(CharsetUtil.US_ASCII);
 
     private final Executor longActionExecutor;
+
     public EchoServerHandler(Executor longActionExecutor) {
-        logger.info("new EchoServerHandler created");
         this.longActionExecutor = longActionExecutor;
     }
 
     @Override
-    public void channelRead(ChannelHandlerContext ctx, Object msg) throws IOException {
-        var in = (ByteBuf) msg;
-
-        if (in.readableBytes() > bufForInMsg.capacity()) {
-            bufForInMsg.capacity(in.readableBytes());
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf in)) {
+            ctx.fireChannelRead(msg);
+            return;
         }
-
-        bufForInMsg.resetReaderIndex();
-        bufForInMsg.resetWriterIndex();
-        try {
-            while (in.isReadable()) {
-                in.readBytes(bufForInMsg, in.readableBytes());
-            }
-        } finally {
-            ReferenceCountUtil.release(msg);
+        if (logger.isDebugEnabled()) {
+            logger.debug("client:{}, data:{}", ctx.channel().remoteAddress(), in.toString(CharsetUtil.UTF_8));
         }
-
-        //Для демонстрации полученных данных и чтения из буфера
-        try (var byteArray = new ByteArrayOutputStream()) {
-            bufForInMsg.readBytes(byteArray, bufForInMsg.readableBytes());
-
-            handleRequest(ctx, byteArray);
+        if (isWaitCommand(in)) {
+            try {
+                longActionExecutor.execute(() -> {
+                    someAction();
+                    ctx.writeAndFlush(in);
+                });
+            } catch (RejectedExecutionException ex) {
+                ReferenceCountUtil.release(in);
+                throw ex;
+            }
+        } else {
+            ctx.write(in);
         }
     }
 
@@ -62,24 +65,29 @@ public class EchoServerHandler extends ChannelInboundHandlerAdapter {
         ctx.close();
     }
 
-    private void handleRequest(ChannelHandlerContext ctx, ByteArrayOutputStream byteArray) {
-        logger.info("this:{}, client:{}, data:{}", this, ctx.channel().remoteAddress(), byteArray);
-
-        var request = byteArray.toString();
-        var normalizedString = request.replace("\r", "").replace("\n", "");
-        if ("wait".equals(normalizedString)) {
-            longActionExecutor.execute(() -> {
-                someAction(request);
-                ctx.writeAndFlush(Unpooled.copiedBuffer(request, CharsetUtil.UTF_8));
-            });
-        } else {
-            ctx.writeAndFlush(Unpooled.copiedBuffer(request, CharsetUtil.UTF_8));
+    /**
+     * Сравнение побайтно, без декодирования в строку; завершающие \r и \n не учитываются.
+     */
+    static boolean isWaitCommand(ByteBuf in) {
+        int begin = in.readerIndex();
+        int end = in.writerIndex();
+        while (end > begin && (in.getByte(end - 1) == '\n' || in.getByte(end - 1) == '\r')) {
+            end--;
+        }
+        if (end - begin != WAIT_COMMAND.length) {
+            return false;
+        }
+        for (int idx = 0; idx < WAIT_COMMAND.length; idx++) {
+            if (in.getByte(begin + idx) != WAIT_COMMAND[idx]) {
+                return false;
+            }
         }
+        return true;
     }
 
-    private void someAction(String request) {
+    private void someAction() {
         try {
-            logger.info("some long action, request:{}", request);
+            logger.info("some long action");
             Thread.sleep(TimeUnit.MINUTES.toMillis(1));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
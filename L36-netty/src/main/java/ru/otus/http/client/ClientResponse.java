@@ -0,0 +1,15 @@
+package ru.otus.http.client;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ответ, отвязанный от буферов Netty: его можно держать сколько угодно и не освобождать.
+ */
+public record ClientResponse(int status, HttpHeaders headers, byte[] body) {
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
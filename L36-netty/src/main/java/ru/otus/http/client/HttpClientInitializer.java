@@ -4,16 +4,15 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpContentDecompressor;
-import io.netty.handler.codec.http.HttpResponseDecoder;
 
 public class HttpClientInitializer extends ChannelInitializer<SocketChannel> {
 
     @Override
     public void initChannel(SocketChannel ch) {
         var channelPipeline = ch.pipeline();
+        // HttpClientCodec уже содержит HttpResponseDecoder, второй декодер не нужен
         channelPipeline.addLast(new HttpClientCodec());
         channelPipeline.addLast(new HttpContentDecompressor());
-        channelPipeline.addLast(new HttpResponseDecoder());
         channelPipeline.addLast(new HttpClientHandler());
     }
 }
@@ -0,0 +1,67 @@
+package ru.otus.http.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.transport.Transport;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Нагрузочный тест HTTP-сервера на PooledHttpClient.
+Аргументы: [url] [запросов] [соединений] [запросов в соединении (>1 - pipelining)]
+ */
+public class HttpLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(HttpLoadTest.class);
+
+    public static void main(String[] args) throws InterruptedException {
+        var uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/?name=Jone");
+        var requests = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        var connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        var inFlightPerConnection = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        var maxInFlight = connections * inFlightPerConnection;
+        var transport = Transport.select(System.getProperty("netty.transport", "auto"));
+        try (var client = new PooledHttpClient(transport, 0, connections, inFlightPerConnection, maxInFlight)) {
+            run(client, uri, Math.min(requests, 10_000), maxInFlight);
+            var latencies = run(client, uri, requests, maxInFlight);
+            logger.info("connections:{}, in flight per connection:{}, {}", connections, inFlightPerConnection, latencies);
+        }
+    }
+
+    private static String run(PooledHttpClient client, URI uri, int requests, int maxInFlight)
+            throws InterruptedException {
+        var permits = new Semaphore(maxInFlight);
+        var latencies = new long[requests];
+        var errors = new AtomicLong();
+        var begin = System.nanoTime();
+        for (int idx = 0; idx < requests; idx++) {
+            permits.acquire();
+            var requestIdx = idx;
+            var sentAt = System.nanoTime();
+            client.get(uri).whenComplete((response, error) -> {
+                latencies[requestIdx] = System.nanoTime() - sentAt;
+                if (error != null || response.status() != 200) {
+                    errors.incrementAndGet();
+                }
+                permits.release();
+            });
+        }
+        permits.acquire(maxInFlight);
+        var elapsedNanos = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        return String.format("requests:%d, errors:%d, %d req/s, latency us p50:%d p90:%d p99:%d max:%d",
+                requests, errors.get(), requests * TimeUnit.SECONDS.toNanos(1) / elapsedNanos,
+                percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+                latencies[requests - 1] / 1000);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        var idx = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(idx, 0)] / 1000;
+    }
+}
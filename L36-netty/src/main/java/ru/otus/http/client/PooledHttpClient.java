@@ -0,0 +1,141 @@
+package ru.otus.http.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.FutureListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.transport.Transport;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный HTTP/1.1 клиент с keep-alive соединениями: на каждый хост свой FixedChannelPool.
+ * maxInFlightPerConnection = 1 - обычный режим, больше 1 - pipelining.
+ * Всего одновременно выполняется не больше maxConnectionsPerHost * maxInFlightPerConnection запросов
+ * к хосту, следующие ждут в очереди пула (до maxPendingAcquires, дальше future завершается ошибкой).
+ */
+public class PooledHttpClient implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PooledHttpClient.class);
+
+    private static final int MAX_CONTENT_LENGTH = 1024 * 1024;
+
+    private final EventLoopGroup group;
+    private final AbstractChannelPoolMap<InetSocketAddress, FixedChannelPool> pools;
+
+    public PooledHttpClient(Transport transport, int threads, int maxConnectionsPerHost,
+                            int maxInFlightPerConnection, int maxPendingAcquires) {
+        if (maxInFlightPerConnection < 1) {
+            throw new IllegalArgumentException("maxInFlightPerConnection must be positive:" + maxInFlightPerConnection);
+        }
+        this.group = transport.newEventLoopGroup(threads, new DefaultThreadFactory("http-client"));
+        var bootstrap = new Bootstrap()
+                .group(group)
+                .channel(transport.channelClass())
+                .option(ChannelOption.TCP_NODELAY, true);
+        this.pools = new AbstractChannelPoolMap<>() {
+            @Override
+            protected FixedChannelPool newPool(InetSocketAddress address) {
+                var poolHandler = new HttpChannelPoolHandler(maxInFlightPerConnection);
+                var pool = new FixedChannelPool(bootstrap.clone().remoteAddress(address), poolHandler,
+                        maxConnectionsPerHost, maxPendingAcquires);
+                poolHandler.pool = pool;
+                return pool;
+            }
+        };
+    }
+
+    public CompletableFuture<ClientResponse> get(URI uri) {
+        return execute(HttpMethod.GET, uri, new byte[0]);
+    }
+
+    public CompletableFuture<ClientResponse> post(URI uri, byte[] body) {
+        return execute(HttpMethod.POST, uri, body);
+    }
+
+    public CompletableFuture<ClientResponse> execute(HttpMethod method, URI uri, byte[] body) {
+        var responseFuture = new CompletableFuture<ClientResponse>();
+        var address = InetSocketAddress.createUnresolved(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort());
+        var pool = pools.get(address);
+        pool.acquire().addListener((FutureListener<Channel>) acquired -> {
+            if (!acquired.isSuccess()) {
+                responseFuture.completeExceptionally(acquired.cause());
+                return;
+            }
+            var channel = acquired.getNow();
+            channel.eventLoop().execute(() -> send(channel, pool, request(method, uri, body), responseFuture));
+        });
+        return responseFuture;
+    }
+
+    private void send(Channel channel, ChannelPool pool, DefaultFullHttpRequest request,
+                      CompletableFuture<ClientResponse> responseFuture) {
+        var handler = channel.pipeline().get(PooledResponseHandler.class);
+        if (!channel.isActive() || handler == null) {
+            request.release();
+            pool.release(channel);
+            responseFuture.completeExceptionally(new IllegalStateException("channel is not active:" + channel));
+            return;
+        }
+        handler.requestSent(channel, responseFuture);
+        channel.writeAndFlush(request).addListener(writeFuture -> {
+            if (!writeFuture.isSuccess()) {
+                responseFuture.completeExceptionally(writeFuture.cause());
+                channel.close();
+            }
+        });
+    }
+
+    private static DefaultFullHttpRequest request(HttpMethod method, URI uri, byte[] body) {
+        var path = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+        var request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, path.isEmpty() ? "/" : path,
+                Unpooled.wrappedBuffer(body));
+        request.headers()
+                .set(HttpHeaderNames.HOST, uri.getHost())
+                .set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP_DEFLATE)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, body.length);
+        return request;
+    }
+
+    @Override
+    public void close() {
+        pools.close();
+        group.shutdownGracefully().syncUninterruptibly();
+        logger.info("http client closed");
+    }
+
+    private static class HttpChannelPoolHandler extends AbstractChannelPoolHandler {
+        private final int maxInFlight;
+        private ChannelPool pool;
+
+        HttpChannelPoolHandler(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        @Override
+        public void channelCreated(Channel ch) {
+            ch.pipeline().addLast(new HttpClientCodec());
+            ch.pipeline().addLast(new HttpContentDecompressor());
+            ch.pipeline().addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH));
+            ch.pipeline().addLast(new PooledResponseHandler(pool, maxInFlight));
+        }
+    }
+}
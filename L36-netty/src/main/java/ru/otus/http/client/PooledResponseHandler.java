@@ -0,0 +1,86 @@
+package ru.otus.http.client;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сопоставляет ответы с запросами соединения. HTTP/1.1 отвечает строго по порядку,
+ * поэтому достаточно очереди ожидающих future.
+ * Соединение возвращается в пул сразу после отправки запроса, пока в нем меньше maxInFlight
+ * запросов (так другие запросы могут идти по нему конвейером), иначе - после первого ответа.
+ * Все методы вызываются из event loop канала.
+ */
+class PooledResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+    private final ChannelPool pool;
+    private final int maxInFlight;
+    private final Queue<CompletableFuture<ClientResponse>> pending = new ArrayDeque<>();
+    private boolean held;
+
+    PooledResponseHandler(ChannelPool pool, int maxInFlight) {
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Вызывается для канала, полученного из пула, перед записью запроса.
+     */
+    void requestSent(Channel channel, CompletableFuture<ClientResponse> responseFuture) {
+        pending.add(responseFuture);
+        if (pending.size() < maxInFlight) {
+            pool.release(channel);
+        } else {
+            held = true;
+        }
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+        var responseFuture = pending.poll();
+        var keepAlive = HttpUtil.isKeepAlive(msg);
+        if (responseFuture != null) {
+            responseFuture.complete(new ClientResponse(msg.status().code(), msg.headers().copy(),
+                    ByteBufUtil.getBytes(msg.content())));
+        }
+        if (!keepAlive) {
+            ctx.close();
+            return;
+        }
+        releaseIfHeld(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        CompletableFuture<ClientResponse> responseFuture;
+        while ((responseFuture = pending.poll()) != null) {
+            responseFuture.completeExceptionally(new ClosedChannelException());
+        }
+        releaseIfHeld(ctx);
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        CompletableFuture<ClientResponse> responseFuture;
+        while ((responseFuture = pending.poll()) != null) {
+            responseFuture.completeExceptionally(cause);
+        }
+        ctx.close();
+    }
+
+    private void releaseIfHeld(ChannelHandlerContext ctx) {
+        if (held) {
+            held = false;
+            pool.release(ctx.channel());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.otus.http.server;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.CharsetUtil;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONNECTION;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaderValues.CLOSE;
+import static io.netty.handler.codec.http.HttpHeaderValues.KEEP_ALIVE;
+import static io.netty.handler.codec.http.HttpHeaderValues.TEXT_PLAIN;
+import static io.netty.handler.codec.http.HttpResponseStatus.METHOD_NOT_ALLOWED;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+
+/**
+ * Общая логика ответов для агрегирующего и потокового обработчиков.
+ */
+final class HelloWorldResponses {
+    /**
+     * Ответ на GET содержит время с точностью до секунды, так что TTL в 100 мс его почти не искажает.
+     */
+    static final ResponseCache GET_CACHE = new ResponseCache(TimeUnit.MILLISECONDS.toNanos(100), 10_000);
+
+    private HelloWorldResponses() {
+    }
+
+    static FullHttpResponse getResponse(HttpRequest request) {
+        var cached = GET_CACHE.get(request.uri(), HelloWorldResponses::getBody);
+        var response = new DefaultFullHttpResponse(request.protocolVersion(), OK, Unpooled.wrappedBuffer(cached.body()));
+        response.headers()
+                .set(CONTENT_TYPE, TEXT_PLAIN)
+                .set(CONTENT_LENGTH, cached.contentLength());
+        return response;
+    }
+
+    static FullHttpResponse methodNotAllowed(HttpVersion version) {
+        var response = new DefaultFullHttpResponse(version, METHOD_NOT_ALLOWED);
+        response.headers().setInt(CONTENT_LENGTH, 0);
+        return response;
+    }
+
+    static String postPrefix() {
+        return "Hi, ";
+    }
+
+    static String postSuffix() {
+        return ", now is:" + LocalTime.now();
+    }
+
+    static void setKeepAlive(HttpResponse response, HttpVersion version, boolean keepAlive) {
+        if (keepAlive) {
+            if (!version.isKeepAliveDefault()) {
+                response.headers().set(CONNECTION, KEEP_ALIVE);
+            }
+        } else {
+            response.headers().set(CONNECTION, CLOSE);
+        }
+    }
+
+    static void write(ChannelHandlerContext ctx, Object message, boolean keepAlive) {
+        var channelFuture = ctx.write(message);
+        if (!keepAlive) {
+            channelFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private static byte[] getBody(String uri) {
+        var nameList = new QueryStringDecoder(uri).parameters().get("name");
+        // время усекается до секунды, иначе закэшированный ответ показывал бы заметно устаревшие доли секунды
+        var now = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
+        String body;
+        if (nameList != null && !nameList.isEmpty()) {
+            body = " Hi, " + nameList.get(0) + ", now is:" + now;
+        } else {
+            body = " Hi, now is:" + now;
+        }
+        return body.getBytes(CharsetUtil.UTF_8);
+    }
+}
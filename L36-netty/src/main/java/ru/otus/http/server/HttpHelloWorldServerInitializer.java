@@ -2,16 +2,44 @@ package ru.otus.http.server;
 
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerExpectContinueHandler;
 
+/*
+-Dhttp.streaming=true - тело запроса обрабатывается по частям, без HttpObjectAggregator
+ */
 public class HttpHelloWorldServerInitializer extends ChannelInitializer<SocketChannel> {
+    /**
+     * Ответы меньше порога не сжимаются: на коротких телах gzip только тратит CPU.
+     */
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    private final boolean streaming;
+    private final HttpHelloWorldServerHandler handler = new HttpHelloWorldServerHandler();
+
+    public HttpHelloWorldServerInitializer() {
+        this(Boolean.getBoolean("http.streaming"));
+    }
+
+    public HttpHelloWorldServerInitializer(boolean streaming) {
+        this.streaming = streaming;
+    }
 
     @Override
     public void initChannel(SocketChannel ch) {
         var channelPipeline = ch.pipeline();
         channelPipeline.addLast(new HttpServerCodec());
-        channelPipeline.addLast(new HttpObjectAggregator(Short.MAX_VALUE));
-        channelPipeline.addLast(new HttpHelloWorldServerHandler());
+        channelPipeline.addLast(new HttpContentCompressor(COMPRESSION_THRESHOLD,
+                StandardCompressionOptions.gzip(), StandardCompressionOptions.deflate()));
+        if (streaming) {
+            channelPipeline.addLast(new HttpServerExpectContinueHandler());
+            channelPipeline.addLast(new HttpHelloWorldStreamingServerHandler());
+        } else {
+            channelPipeline.addLast(new HttpObjectAggregator(Short.MAX_VALUE));
+            channelPipeline.addLast(handler);
+        }
     }
 }
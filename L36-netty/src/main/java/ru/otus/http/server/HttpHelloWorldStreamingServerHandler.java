@@ -0,0 +1,98 @@
+package ru.otus.http.server;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderValues.CHUNKED;
+import static io.netty.handler.codec.http.HttpHeaderValues.TEXT_PLAIN;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+
+/**
+ * Вариант без HttpObjectAggregator: тело POST не собирается в памяти,
+ * каждая его часть сразу уходит обратно чанком ответа.
+ * Если клиент не успевает читать ответ, чтение из канала приостанавливается.
+ * Хранит состояние текущего запроса, поэтому создается на каждый канал.
+ */
+public class HttpHelloWorldStreamingServerHandler extends SimpleChannelInboundHandler<HttpObject> {
+    private static final Logger logger = LoggerFactory.getLogger(HttpHelloWorldStreamingServerHandler.class);
+
+    private HttpRequest request;
+    private boolean keepAlive;
+
+    @Override
+    public void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+        if (msg instanceof HttpRequest httpRequest) {
+            startRequest(ctx, httpRequest);
+        }
+        if (msg instanceof HttpContent content && request != null) {
+            var streaming = HttpMethod.POST.equals(request.method());
+            if (streaming && content.content().isReadable()) {
+                ctx.write(new DefaultHttpContent(content.content().retain()));
+            }
+            if (msg instanceof LastHttpContent) {
+                finishRequest(ctx, streaming);
+            }
+        }
+    }
+
+    private void startRequest(ChannelHandlerContext ctx, HttpRequest httpRequest) {
+        logger.debug("method:{}, uri:{}", httpRequest.method(), httpRequest.uri());
+        request = httpRequest;
+        keepAlive = HttpUtil.isKeepAlive(httpRequest);
+        if (HttpMethod.POST.equals(httpRequest.method())) {
+            var response = new DefaultHttpResponse(httpRequest.protocolVersion(), OK);
+            response.headers()
+                    .set(CONTENT_TYPE, TEXT_PLAIN)
+                    .set(TRANSFER_ENCODING, CHUNKED);
+            HelloWorldResponses.setKeepAlive(response, httpRequest.protocolVersion(), keepAlive);
+            ctx.write(response);
+            ctx.write(new DefaultHttpContent(ByteBufUtil.writeUtf8(ctx.alloc(), HelloWorldResponses.postPrefix())));
+        }
+    }
+
+    private void finishRequest(ChannelHandlerContext ctx, boolean streaming) {
+        Object lastMessage;
+        if (streaming) {
+            lastMessage = new DefaultLastHttpContent(ByteBufUtil.writeUtf8(ctx.alloc(), HelloWorldResponses.postSuffix()));
+        } else {
+            var response = HttpMethod.GET.equals(request.method())
+                    ? HelloWorldResponses.getResponse(request)
+                    : HelloWorldResponses.methodNotAllowed(request.protocolVersion());
+            HelloWorldResponses.setKeepAlive(response, request.protocolVersion(), keepAlive);
+            lastMessage = response;
+        }
+        HelloWorldResponses.write(ctx, lastMessage, keepAlive);
+        request = null;
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        ctx.channel().config().setAutoRead(ctx.channel().isWritable());
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.error(cause.getMessage(), cause);
+        ctx.close();
+    }
+}
@@ -1,35 +1,42 @@
 package ru.otus.http.server;
 
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.transport.ServerOptions;
 
+/*
+Транспорт и опции задаются через system properties, см. ServerOptions, например:
+-Dnetty.transport=epoll -Dnetty.reusePort=true -Dnetty.acceptors=4
+ */
 public class HttpServer {
     private static final Logger logger = LoggerFactory.getLogger(HttpServer.class);
 
     private static final int PORT = 8080;
 
     public static void main(String[] args) throws Exception {
-        var eventLoopGroup = new NioEventLoopGroup(1);
-        var workerGroup = new NioEventLoopGroup();
+        var options = ServerOptions.fromSystemProperties();
+        var transport = options.transport();
+        var eventLoopGroup = transport.newEventLoopGroup(options.acceptorThreads(), new DefaultThreadFactory("acceptor"));
+        var workerGroup = transport.newEventLoopGroup(options.workerThreads(), new DefaultThreadFactory("worker"));
         try {
-            var serverBootstrap = new ServerBootstrap();
-            serverBootstrap.option(ChannelOption.SO_BACKLOG, 1024);
+            var serverBootstrap = options.configure(new ServerBootstrap());
             serverBootstrap.group(eventLoopGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
-                    .handler(new LoggingHandler(LogLevel.INFO))
                     .childHandler(new HttpHelloWorldServerInitializer());
+            if (logger.isDebugEnabled()) {
+                serverBootstrap.handler(new LoggingHandler(LogLevel.DEBUG));
+            }
 
-            var channel = serverBootstrap.bind(PORT).sync().channel();
+            var channels = options.bind(serverBootstrap, PORT);
 
             logger.info("waiting for client on the port: {}", PORT);
 
-            channel.closeFuture().sync();
+            for (var channel : channels) {
+                channel.closeFuture().sync();
+            }
         } finally {
             eventLoopGroup.shutdownGracefully();
             workerGroup.shutdownGracefully();
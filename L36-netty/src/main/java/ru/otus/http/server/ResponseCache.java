@@ -0,0 +1,41 @@
+package ru.otus.http.server;
+
+import io.netty.util.AsciiString;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Кеш готовых тел ответов на идемпотентные GET с коротким TTL.
+ * Длина тела хранится готовым заголовком, чтобы не форматировать ее на каждый ответ.
+ * При переполнении кеш просто очищается: ключей немного, а записи живут доли секунды.
+ */
+public class ResponseCache {
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    public ResponseCache(long ttlNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    public CachedResponse get(String key, Function<String, byte[]> bodyLoader) {
+        var now = System.nanoTime();
+        var cached = entries.get(key);
+        if (cached != null && now - cached.expiresAtNanos() < 0) {
+            return cached;
+        }
+        var body = bodyLoader.apply(key);
+        cached = new CachedResponse(body, AsciiString.of(Integer.toString(body.length)), now + ttlNanos);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, cached);
+        return cached;
+    }
+
+    public record CachedResponse(byte[] body, AsciiString contentLength, long expiresAtNanos) {
+    }
+}
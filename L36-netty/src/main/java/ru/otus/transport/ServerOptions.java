@@ -0,0 +1,100 @@
+package ru.otus.transport;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.EpollChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки сервера, читаются из system properties:
+ * <pre>
+ * -Dnetty.transport=auto|epoll|nio   (auto)
+ * -Dnetty.acceptors=N                число acceptor-потоков (1)
+ * -Dnetty.workers=N                  число потоков обработки (0 - по умолчанию Netty)
+ * -Dnetty.reusePort=true|false       SO_REUSEPORT, только epoll (false)
+ * -Dnetty.tcpNoDelay=true|false      (true)
+ * -Dnetty.writeBufferLow=bytes       (32K)
+ * -Dnetty.writeBufferHigh=bytes      (64K)
+ * -Dnetty.allocator=pooled|unpooled  (pooled)
+ * </pre>
+ * С SO_REUSEPORT на порт привязывается по серверному каналу на каждый acceptor-поток,
+ * и ядро само распределяет между ними входящие соединения.
+ */
+public record ServerOptions(Transport transport,
+                            int acceptorThreads,
+                            int workerThreads,
+                            boolean reusePort,
+                            boolean tcpNoDelay,
+                            WriteBufferWaterMark writeBufferWaterMark,
+                            ByteBufAllocator allocator) {
+    private static final Logger logger = LoggerFactory.getLogger(ServerOptions.class);
+
+    public ServerOptions {
+        if (acceptorThreads < 1) {
+            throw new IllegalArgumentException("acceptorThreads must be positive:" + acceptorThreads);
+        }
+        if (reusePort && transport != Transport.EPOLL) {
+            logger.warn("SO_REUSEPORT requires epoll transport, transport:{}", transport);
+            reusePort = false;
+        }
+    }
+
+    public static ServerOptions fromSystemProperties() {
+        return new ServerOptions(
+                Transport.select(System.getProperty("netty.transport", "auto")),
+                Integer.getInteger("netty.acceptors", 1),
+                Integer.getInteger("netty.workers", 0),
+                Boolean.parseBoolean(System.getProperty("netty.reusePort", "false")),
+                Boolean.parseBoolean(System.getProperty("netty.tcpNoDelay", "true")),
+                new WriteBufferWaterMark(Integer.getInteger("netty.writeBufferLow", 32 * 1024),
+                        Integer.getInteger("netty.writeBufferHigh", 64 * 1024)),
+                allocator(System.getProperty("netty.allocator", "pooled")));
+    }
+
+    public ServerOptions withTransport(Transport newTransport) {
+        return new ServerOptions(newTransport, acceptorThreads, workerThreads, reusePort && newTransport == Transport.EPOLL,
+                tcpNoDelay, writeBufferWaterMark, allocator);
+    }
+
+    /**
+     * Канал и опции; группы потоков и обработчики задает вызывающий.
+     */
+    public ServerBootstrap configure(ServerBootstrap serverBootstrap) {
+        serverBootstrap.channel(transport.serverChannelClass())
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark);
+        if (reusePort) {
+            serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        return serverBootstrap;
+    }
+
+    /**
+     * Без SO_REUSEPORT создается один серверный канал, с ним - по каналу на acceptor-поток.
+     */
+    public List<Channel> bind(ServerBootstrap serverBootstrap, int port) throws InterruptedException {
+        var bindCount = reusePort ? acceptorThreads : 1;
+        var channels = new ArrayList<Channel>(bindCount);
+        for (int idx = 0; idx < bindCount; idx++) {
+            channels.add(serverBootstrap.bind(port).sync().channel());
+        }
+        logger.info("transport:{}, server channels:{}, port:{}", transport, bindCount, port);
+        return channels;
+    }
+
+    private static ByteBufAllocator allocator(String name) {
+        return "unpooled".equalsIgnoreCase(name) ? UnpooledByteBufAllocator.DEFAULT : PooledByteBufAllocator.DEFAULT;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.otus.transport;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Транспорт Netty: нативный epoll (только Linux) или NIO, который работает везде.
+ */
+public enum Transport {
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return EpollSocketChannel.class;
+        }
+    },
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory) {
+            return new NioEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return NioSocketChannel.class;
+        }
+    };
+
+    private static final Logger logger = LoggerFactory.getLogger(Transport.class);
+
+    public abstract boolean isAvailable();
+
+    /**
+     * @param threads 0 - число потоков по умолчанию Netty (2 * число ядер)
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory);
+
+    public abstract Class<? extends ServerChannel> serverChannelClass();
+
+    public abstract Class<? extends SocketChannel> channelClass();
+
+    /**
+     * @param requested "epoll", "nio" или "auto"; epoll при недоступности заменяется на NIO
+     */
+    public static Transport select(String requested) {
+        var name = requested.toLowerCase(Locale.ROOT);
+        if ("nio".equals(name)) {
+            return NIO;
+        }
+        if (EPOLL.isAvailable()) {
+            return EPOLL;
+        }
+        if ("epoll".equals(name)) {
+            logger.warn("epoll transport is not available, falling back to NIO", Epoll.unavailabilityCause());
+        }
+        return NIO;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.otus.echo.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение эхо-обработчиков на EmbeddedChannel: пропускная способность и,
+ * через GCProfiler (gc.alloc.rate.norm), байты кучи на одно сообщение.
+ * Входящий буфер берется из общего пулового аллокатора, как это делает канал.
+ * CopyingEchoServerHandler пишет каждое сообщение в лог на INFO - это часть его исходной стоимости.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EchoServerHandlerBenchmark {
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Param({"16", "1024"})
+    public int payloadSize;
+
+    private byte[] payload;
+    private EmbeddedChannel copyingChannel;
+    private EmbeddedChannel zeroCopyChannel;
+
+    public static void main(String[] args) throws RunnerException {
+        var opt = new OptionsBuilder()
+                .include(EchoServerHandlerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) 'a');
+        copyingChannel = new EmbeddedChannel(new CopyingEchoServerHandler(DIRECT_EXECUTOR));
+        zeroCopyChannel = new EmbeddedChannel(new EchoServerHandler(DIRECT_EXECUTOR));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        copyingChannel.finishAndReleaseAll();
+        zeroCopyChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int copyingHandler() {
+        return echo(copyingChannel);
+    }
+
+    @Benchmark
+    public int zeroCopyHandler() {
+        return echo(zeroCopyChannel);
+    }
+
+    private int echo(EmbeddedChannel channel) {
+        var in = PooledByteBufAllocator.DEFAULT.directBuffer(payloadSize).writeBytes(payload);
+        channel.writeInbound(in);
+        ByteBuf out = channel.readOutbound();
+        var size = out.readableBytes();
+        ReferenceCountUtil.release(out);
+        return size;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.otus.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.echo.server.EchoServerHandler;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сравнение пропускной способности транспортов на loopback: эхо-сервер на EchoServerHandler
+ * и клиент, который держит в каждом соединении постоянный объем неподтвержденных сообщений.
+ * Аргументы: [соединений] [секунд на замер] [размер сообщения].
+ */
+public class TransportThroughputComparison {
+    private static final Logger logger = LoggerFactory.getLogger(TransportThroughputComparison.class);
+
+    private static final int PORT = 18080;
+    private static final int MESSAGES_IN_FLIGHT = 64;
+    private static final int WARMUP_SECONDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        var connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        var seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        var messageSize = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        for (var transport : Transport.values()) {
+            if (!transport.isAvailable()) {
+                logger.info("transport:{} is not available, skipped", transport);
+                continue;
+            }
+            var options = new ServerOptions(transport, 1, 0, false, true,
+                    WriteBufferWaterMark.DEFAULT, PooledByteBufAllocator.DEFAULT);
+            var bytesPerSecond = run(options, connections, seconds, messageSize);
+            logger.info("transport:{}, connections:{}, message:{} bytes, {} MB/s, {} messages/s", transport,
+                    connections, messageSize, bytesPerSecond / (1024 * 1024), bytesPerSecond / messageSize);
+        }
+    }
+
+    private static long run(ServerOptions options, int connections, int seconds, int messageSize)
+            throws InterruptedException {
+        var transport = options.transport();
+        var serverGroup = transport.newEventLoopGroup(0, new DefaultThreadFactory("server"));
+        var clientGroup = transport.newEventLoopGroup(0, new DefaultThreadFactory("client"));
+        var received = new LongAdder();
+        var message = Unpooled.unreleasableBuffer(Unpooled.directBuffer(messageSize).writeZero(messageSize));
+        try {
+            var echoServerHandler = new EchoServerHandler(Runnable::run);
+            var serverBootstrap = options.configure(new ServerBootstrap())
+                    .group(serverGroup)
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        public void initChannel(SocketChannel ch) {
+                            ch.pipeline().addLast(echoServerHandler);
+                        }
+                    });
+            var serverChannels = options.bind(serverBootstrap, PORT);
+
+            var bootstrap = new Bootstrap()
+                    .group(clientGroup)
+                    .channel(transport.channelClass())
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        public void initChannel(SocketChannel ch) {
+                            ch.pipeline().addLast(new FloodClientHandler(message, received));
+                        }
+                    });
+            var clientChannels = new ArrayList<Channel>();
+            for (int idx = 0; idx < connections; idx++) {
+                clientChannels.add(bootstrap.connect("localhost", PORT).sync().channel());
+            }
+
+            TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+            var begin = received.sum();
+            var beginNanos = System.nanoTime();
+            TimeUnit.SECONDS.sleep(seconds);
+            var bytes = received.sum() - begin;
+            var elapsedNanos = System.nanoTime() - beginNanos;
+
+            for (var channel : clientChannels) {
+                channel.close().sync();
+            }
+            for (var channel : serverChannels) {
+                channel.close().sync();
+            }
+            return bytes * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        } finally {
+            clientGroup.shutdownGracefully().sync();
+            serverGroup.shutdownGracefully().sync();
+        }
+    }
+
+    /**
+     * На каждый полученный объем сообщения отправляет следующее, так что в соединении
+     * всегда MESSAGES_IN_FLIGHT сообщений.
+     */
+    private static class FloodClientHandler extends ChannelInboundHandlerAdapter {
+        private final ByteBuf message;
+        private final LongAdder received;
+        private long pendingBytes;
+
+        FloodClientHandler(ByteBuf message, LongAdder received) {
+            this.message = message;
+            this.received = received;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            for (int idx = 0; idx < MESSAGES_IN_FLIGHT; idx++) {
+                ctx.write(message.duplicate());
+            }
+            ctx.flush();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            var in = (ByteBuf) msg;
+            var bytes = in.readableBytes();
+            ReferenceCountUtil.release(msg);
+            received.add(bytes);
+            pendingBytes += bytes;
+            while (pendingBytes >= message.readableBytes()) {
+                ctx.write(message.duplicate());
+                pendingBytes -= message.readableBytes();
+            }
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.error(cause.getMessage(), cause);
+            ctx.close();
+        }
+    }
+}
@@ -5,11 +5,13 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import ru.petrelevich.domain.Message;
 import ru.petrelevich.domain.MessageDto;
+import ru.petrelevich.domain.StoredMessageDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -53,4 +55,19 @@ public class DataController {
                 .doOnNext(msgDto -> log.info("msgDto:{}", msgDto))
                 .subscribeOn(workerPool);
     }
+
+    /**
+     * Сообщения комнаты с id больше sinceId, не больше limit штук.
+     * Клиент передает id последнего полученного сообщения и дочитывает историю порциями.
+     */
+    @GetMapping(value = "/msg/{roomId}/since/{sinceId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StoredMessageDto> getMessagesSince(@PathVariable("roomId") String roomId,
+                                                   @PathVariable("sinceId") long sinceId,
+                                                   @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return Mono.just(roomId)
+                .doOnNext(room -> log.info("getMessagesSince, room:{}, sinceId:{}, limit:{}", room, sinceId, limit))
+                .flatMapMany(room -> dataStore.loadMessagesPage(room, sinceId, limit))
+                .map(message -> new StoredMessageDto(message.getId(), message.getMsgText()))
+                .subscribeOn(workerPool);
+    }
 }
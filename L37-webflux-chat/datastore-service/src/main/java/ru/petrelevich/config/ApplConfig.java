@@ -1,17 +1,20 @@
 package ru.petrelevich.config;
 
 import io.netty.channel.nio.NioEventLoopGroup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
 
-
+import java.time.Duration;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.annotation.NonNull;
+import ru.petrelevich.service.MessageBatchWriter;
 
 @Configuration
 public class ApplConfig {
@@ -38,4 +41,11 @@ public class ApplConfig {
     public Scheduler workerPool() {
         return Schedulers.newParallel("processor-thread", THREAD_POOL_SIZE);
     }
+
+    @Bean(destroyMethod = "close")
+    public MessageBatchWriter messageBatchWriter(DatabaseClient databaseClient, Scheduler workerPool,
+                                                 @Value("${datastore.batch.max-size}") int maxBatchSize,
+                                                 @Value("${datastore.batch.window-ms}") long windowMs) {
+        return new MessageBatchWriter(databaseClient, workerPool, maxBatchSize, Duration.ofMillis(windowMs));
+    }
 }
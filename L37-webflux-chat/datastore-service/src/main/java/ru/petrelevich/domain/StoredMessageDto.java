@@ -0,0 +1,4 @@
+package ru.petrelevich.domain;
+
+public record StoredMessageDto(Long id, String messageStr) {
+}
@@ -8,7 +8,7 @@ import ru.petrelevich.domain.Message;
 
 public interface MessageRepository extends ReactiveCrudRepository<Message, Long> {
 
-    @Query("select * from message where room_id = :room_id order by id")
-    Flux<Message> findByRoomId(@Param("roomId") String roomId);
+    @Query("select * from message where room_id = :roomId and id > :afterId order by id limit :limit")
+    Flux<Message> findPage(@Param("roomId") String roomId, @Param("afterId") long afterId, @Param("limit") int limit);
 
 }
@@ -9,4 +9,11 @@ public interface DataStore {
     Mono<Message> saveMessage(Message message);
 
     Flux<Message> loadMessages(String roomId);
+
+    /**
+     * Все сообщения комнаты с id больше sinceId - только то, чего у клиента еще нет.
+     */
+    Flux<Message> loadMessages(String roomId, long sinceId);
+
+    Flux<Message> loadMessagesPage(String roomId, long afterId, int limit);
 }
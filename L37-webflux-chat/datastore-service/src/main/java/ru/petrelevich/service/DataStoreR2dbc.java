@@ -1,38 +1,61 @@
 package ru.petrelevich.service;
 
-import java.time.Duration;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Scheduler;
 import ru.petrelevich.domain.Message;
 import ru.petrelevich.repository.MessageRepository;
 
-import static java.time.temporal.ChronoUnit.SECONDS;
-
 @Service
 public class DataStoreR2dbc implements DataStore {
     private static final Logger log = LoggerFactory.getLogger(DataStoreR2dbc.class);
     private final MessageRepository messageRepository;
-    private final Scheduler workerPool;
+    private final MessageBatchWriter messageBatchWriter;
+    private final int pageSize;
 
-    public DataStoreR2dbc(Scheduler workerPool, MessageRepository messageRepository) {
-        this.workerPool = workerPool;
+    public DataStoreR2dbc(MessageRepository messageRepository, MessageBatchWriter messageBatchWriter,
+                          @Value("${datastore.page-size}") int pageSize) {
         this.messageRepository = messageRepository;
+        this.messageBatchWriter = messageBatchWriter;
+        this.pageSize = pageSize;
     }
 
     @Override
     public Mono<Message> saveMessage(Message message) {
         log.info("saveMessage:{}", message);
-        return messageRepository.save(message);
+        return messageBatchWriter.save(message);
     }
 
     @Override
     public Flux<Message> loadMessages(String roomId) {
-        log.info("loadMessages roomId:{}", roomId);
-        return messageRepository.findByRoomId(roomId)
-                .delayElements(Duration.of(3, SECONDS), workerPool);
+        return loadMessages(roomId, 0);
+    }
+
+    /**
+     * История читается страницами по ключу (id > последнего прочитанного), а не offset-ом:
+     * каждая страница - короткий проход по индексу (room_id, id), память не зависит от размера истории.
+     */
+    @Override
+    public Flux<Message> loadMessages(String roomId, long sinceId) {
+        log.info("loadMessages roomId:{}, sinceId:{}", roomId, sinceId);
+        return loadPage(roomId, sinceId, pageSize)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : loadPage(roomId, page.get(page.size() - 1).getId(), pageSize))
+                .flatMapIterable(page -> page);
+    }
+
+    @Override
+    public Flux<Message> loadMessagesPage(String roomId, long afterId, int limit) {
+        log.info("loadMessagesPage roomId:{}, afterId:{}, limit:{}", roomId, afterId, limit);
+        return messageRepository.findPage(roomId, afterId, Math.min(limit, pageSize));
+    }
+
+    private Mono<List<Message>> loadPage(String roomId, long afterId, int limit) {
+        return messageRepository.findPage(roomId, afterId, limit).collectList();
     }
 }
@@ -0,0 +1,169 @@
+package ru.petrelevich.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+import ru.petrelevich.domain.Message;
+
+/**
+ * Собирает сообщения, пришедшие в течение window (но не больше maxBatchSize),
+ * и пишет их одним многострочным insert.
+ * Пачки пишутся по одной: пока идет insert, следующая успевает накопиться,
+ * так что под нагрузкой пачки растут сами.
+ * Если конвейер все же упал, он переподписывается на очередь заново.
+ */
+public class MessageBatchWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MessageBatchWriter.class);
+    // размеры колонок из V1__initial_schema.sql
+    static final int ROOM_ID_MAX_LENGTH = 50;
+    static final int MSG_TEXT_MAX_LENGTH = 500;
+
+    private final DatabaseClient databaseClient;
+    // unicast-sink не принимает повторную подписку, а multicast без autoCancel переживает отписку конвейера
+    private final Sinks.Many<PendingMessage> pending =
+            Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+    private final LongAdder batchesWritten = new LongAdder();
+    private final Disposable.Swap writer = Disposables.swap();
+    private final Scheduler scheduler;
+    private final int maxBatchSize;
+    private final Duration window;
+
+    public MessageBatchWriter(DatabaseClient databaseClient, Scheduler scheduler, int maxBatchSize, Duration window) {
+        this.databaseClient = databaseClient;
+        this.scheduler = scheduler;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        subscribe();
+    }
+
+    public Mono<Message> save(Message message) {
+        return Mono.defer(() -> {
+            // некорректная строка уронила бы insert всей пачки, поэтому отсекаем ее до постановки в очередь
+            var invalidReason = validate(message);
+            if (invalidReason != null) {
+                return Mono.error(new InvalidMessageException(invalidReason));
+            }
+            var result = Sinks.<Message>one();
+            Sinks.EmitResult emitResult;
+            // unicast-sink не допускает одновременных emit из разных потоков
+            synchronized (pending) {
+                emitResult = pending.tryEmitNext(new PendingMessage(message, result));
+            }
+            if (emitResult.isFailure()) {
+                return Mono.error(new IllegalStateException("message was not accepted: " + emitResult));
+            }
+            return result.asMono();
+        });
+    }
+
+    public long batchesWritten() {
+        return batchesWritten.sum();
+    }
+
+    @Override
+    public void close() {
+        writer.dispose();
+    }
+
+    /**
+     * bufferTimeout отдает пачку по таймеру, не дожидаясь запроса, и падает, если concatMap занят долгим insert.
+     * onBackpressureBuffer держит такие пачки, пока не освободится запись.
+     */
+    private void subscribe() {
+        // после close() Swap сразу освобождает новую подписку
+        writer.update(pending.asFlux()
+                .bufferTimeout(maxBatchSize, window, scheduler)
+                .onBackpressureBuffer()
+                .concatMap(this::write)
+                .subscribe(null, this::resubscribe));
+    }
+
+    private void resubscribe(Throwable error) {
+        log.error("batch writer failed, resubscribing", error);
+        subscribe();
+    }
+
+    private static String validate(Message message) {
+        if (message.getRoomId() == null) {
+            return "roomId is null";
+        }
+        if (message.getMsgText() == null) {
+            return "msgText is null";
+        }
+        if (message.getRoomId().length() > ROOM_ID_MAX_LENGTH) {
+            return "roomId is longer than " + ROOM_ID_MAX_LENGTH;
+        }
+        if (message.getMsgText().length() > MSG_TEXT_MAX_LENGTH) {
+            return "msgText is longer than " + MSG_TEXT_MAX_LENGTH;
+        }
+        return null;
+    }
+
+    /**
+     * Ошибка здесь не должна завершать общий конвейер: тогда все следующие save() остались бы без ответа.
+     * Если пачка не записалась, ее сообщения пишутся по одному, и ошибку получает только тот, чья строка не прошла.
+     */
+    private Mono<Void> write(List<PendingMessage> batch) {
+        return Mono.defer(() -> insert(batch))
+                .doOnNext(ids -> complete(batch, ids))
+                .then()
+                .onErrorResume(error -> {
+                    if (batch.size() == 1) {
+                        log.error("message insert failed", error);
+                        batch.get(0).result().tryEmitError(error);
+                        return Mono.empty();
+                    }
+                    log.warn("batch insert failed, batch size:{}, retrying one by one", batch.size(), error);
+                    return Flux.fromIterable(batch)
+                            .concatMap(pendingMessage -> write(List.of(pendingMessage)))
+                            .then();
+                });
+    }
+
+    private void complete(List<PendingMessage> batch, List<Long> ids) {
+        if (ids.size() != batch.size()) {
+            // строки уже вставлены, повторять insert нельзя
+            var error = new IllegalStateException(
+                    String.format("expected %d generated ids, got %d", batch.size(), ids.size()));
+            log.error("batch insert failed", error);
+            batch.forEach(pendingMessage -> pendingMessage.result().tryEmitError(error));
+            return;
+        }
+        batchesWritten.increment();
+        log.info("messages saved, batch size:{}", batch.size());
+        for (var idx = 0; idx < batch.size(); idx++) {
+            var message = batch.get(idx).message();
+            batch.get(idx).result().tryEmitValue(new Message(ids.get(idx), message.getRoomId(), message.getMsgText()));
+        }
+    }
+
+    Mono<List<Long>> insert(List<PendingMessage> batch) {
+        var sql = new StringBuilder("insert into message (room_id, msg_text) values ");
+        for (var idx = 0; idx < batch.size(); idx++) {
+            sql.append(idx == 0 ? "" : ", ").append("(:roomId").append(idx).append(", :msgText").append(idx).append(')');
+        }
+        var spec = databaseClient.sql(sql.toString());
+        for (var idx = 0; idx < batch.size(); idx++) {
+            var message = batch.get(idx).message();
+            spec = spec.bind("roomId" + idx, message.getRoomId())
+                    .bind("msgText" + idx, message.getMsgText());
+        }
+        return spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList();
+    }
+
+    record PendingMessage(Message message, Sinks.One<Message> result) {
+    }
+}
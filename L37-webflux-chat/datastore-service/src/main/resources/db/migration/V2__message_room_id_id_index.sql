@@ -0,0 +1,4 @@
+-- для выборок вида room_id = ? and id > ? order by id limit ?;
+-- старый индекс по одному room_id - префикс нового и больше не нужен
+create index idx_message_room_id_id on message (room_id, id);
+drop index idx_message_room_id;
@@ -0,0 +1,153 @@
+package ru.petrelevich.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import ru.petrelevich.domain.Message;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Хранилище на H2 в режиме совместимости с PostgreSQL, схема накатывается теми же миграциями flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///datastoreTest?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.flyway.url=jdbc:h2:mem:datastoreTest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.flyway.user=sa",
+                "spring.flyway.password=",
+                "datastore.batch.max-size=50",
+                "datastore.batch.window-ms=20",
+                "datastore.page-size=" + DataStoreR2dbcTest.PAGE_SIZE
+        })
+class DataStoreR2dbcTest {
+    static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private DataStore dataStore;
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void concurrentSavesAreBatchedAndGetDistinctIds() {
+        var roomId = "batch";
+        var count = 200;
+        var batchesBefore = messageBatchWriter.batchesWritten();
+
+        var saved = save(roomId, count);
+
+        assertThat(saved).hasSize(count);
+        assertThat(new HashSet<>(saved.stream().map(Message::getId).toList())).hasSize(count);
+        assertThat(saved).allSatisfy(message -> assertThat(message.getRoomId()).isEqualTo(roomId));
+        assertThat(messageBatchWriter.batchesWritten() - batchesBefore).isBetween(1L, count - 1L);
+    }
+
+    @Test
+    void invalidMessageIsRejectedAndWriterKeepsWorking() {
+        var roomId = "invalid";
+
+        var nullText = dataStore.saveMessage(new Message(roomId, null)).map(Message::getId);
+        var tooLong = dataStore.saveMessage(new Message(roomId, "x".repeat(MessageBatchWriter.MSG_TEXT_MAX_LENGTH + 1)))
+                .map(Message::getId);
+
+        StepVerifier.create(nullText).expectError(InvalidMessageException.class).verify();
+        StepVerifier.create(tooLong).expectError(InvalidMessageException.class).verify();
+        assertThat(save(roomId, 3)).hasSize(3);
+    }
+
+    @Test
+    void writerSurvivesInsertSlowerThanWindow() {
+        var roomId = "slow";
+        var count = 80;
+        // пачки по 2 сообщения, а concatMap заранее запрашивает только 32: таймер bufferTimeout отдаст больше
+        try (var slowWriter = new MessageBatchWriter(databaseClient, Schedulers.parallel(), 2, Duration.ofMillis(20)) {
+            @Override
+            Mono<List<Long>> insert(List<PendingMessage> batch) {
+                return super.insert(batch).delaySubscription(Duration.ofMillis(50));
+            }
+        }) {
+            var saved = Flux.range(0, count)
+                    .flatMap(idx -> slowWriter.save(new Message(roomId, "msg_" + idx)))
+                    .collectList()
+                    .block(Duration.ofSeconds(30));
+
+            assertThat(saved).hasSize(count);
+            assertThat(new HashSet<>(saved.stream().map(Message::getId).toList())).hasSize(count);
+        }
+    }
+
+    @Test
+    void historyIsReadCompletelyAndInOrderAcrossPages() {
+        var roomId = "history";
+        var saved = save(roomId, PAGE_SIZE * 3 + 2);
+        save("other", 5);
+
+        var loaded = dataStore.loadMessages(roomId).collectList().block();
+
+        assertThat(loaded).extracting(Message::getId)
+                .containsExactlyElementsOf(saved.stream().map(Message::getId).sorted().toList());
+    }
+
+    @Test
+    void sinceIdReturnsOnlyNewMessages() {
+        var roomId = "since";
+        var first = save(roomId, 10);
+        var lastSeenId = first.stream().mapToLong(Message::getId).max().orElseThrow();
+        var second = save(roomId, 3);
+
+        var delta = dataStore.loadMessages(roomId, lastSeenId).collectList().block();
+
+        assertThat(delta).extracting(Message::getId)
+                .containsExactlyElementsOf(second.stream().map(Message::getId).sorted().toList());
+    }
+
+    @Test
+    void pageIsLimitedAndContinuesFromAfterId() {
+        var roomId = "page";
+        var ids = save(roomId, 12).stream().map(Message::getId).sorted().toList();
+
+        var firstPage = dataStore.loadMessagesPage(roomId, 0, 5).map(Message::getId).collectList().block();
+        var nextPage = dataStore.loadMessagesPage(roomId, ids.get(4), 100).map(Message::getId).collectList().block();
+
+        assertThat(firstPage).containsExactlyElementsOf(ids.subList(0, 5));
+        assertThat(nextPage).containsExactlyElementsOf(ids.subList(5, 5 + PAGE_SIZE));
+    }
+
+    @Test
+    void keysetIndexExists() {
+        var indexes = databaseClient.sql("select lower(index_name) as name from information_schema.indexes " +
+                        "where lower(table_name) = 'message'")
+                .map(row -> row.get("name", String.class))
+                .all()
+                .collectList()
+                .block();
+
+        assertThat(indexes).contains("idx_message_room_id_id").doesNotContain("idx_message_room_id");
+    }
+
+    private List<Message> save(String roomId, int count) {
+        return Flux.fromStream(IntStream.range(0, count).mapToObj(idx -> new Message(roomId, "msg_" + idx)))
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(dataStore::saveMessage)
+                .sequential()
+                .collectList()
+                .block();
+    }
+}
@@ -3,6 +3,7 @@ package com.datasrc;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,9 +20,9 @@ public class ClientDataController {
 
     private final WebClient client;
 
-    public ClientDataController(WebClient.Builder builder) {
+    public ClientDataController(WebClient.Builder builder, @Value("${processor.url}") String processorUrl) {
         client = builder
-                .baseUrl("http://localhost:8081")
+                .baseUrl(processorUrl)
                 .build();
     }
 
@@ -0,0 +1,119 @@
+package com.datasrc.benchmark;
+
+import com.datasrc.StringValue;
+import com.datasrc.httpclient.HttpClientProperties;
+import com.datasrc.httpclient.ReactorHttpClients;
+import com.datasrc.httpclient.ndjson.StringFieldMapping;
+import com.datasrc.httpclient.ndjson.StringFieldNdjsonCodecs;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/*
+Сквозной бенчмарк цепочки client -> processor -> source через loopback.
+Сначала запустить SourceData, ProcessorData и ClientData (у всех трех можно включить
+-Dhttp-client.h2c=true), затем:
+ChainBenchmark [url клиента] [запросов] [одновременных запросов] [mono|flux]
+flux читает первые FLUX_ELEMENTS элементов потока /data/{seed};
+-Dndjson.fast-codec=false переключает бенчмарк (и сервисы) на NDJSON-кодек Jackson.
+Настройки клиента бенчмарка берутся из -Dhttp-client.*, как у сервисов.
+ */
+public class ChainBenchmark {
+    private static final int FLUX_ELEMENTS = 3;
+
+    public static void main(String[] args) {
+        var url = args.length > 0 ? args[0] : "http://localhost:8082";
+        var requests = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        var concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        var flux = args.length > 3 && "flux".equals(args[3]);
+        var fastNdjson = Boolean.parseBoolean(System.getProperty("ndjson.fast-codec", "true"));
+
+        var props = clientProperties();
+        var loopResources = ReactorHttpClients.loopResources(props);
+        var connectionProvider = ReactorHttpClients.connectionProvider(props);
+        try {
+            var httpClient = ReactorHttpClients.customize(
+                    HttpClient.create(connectionProvider).runOn(loopResources), props);
+            var client = WebClient.builder()
+                    .baseUrl(url)
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .codecs(configurer -> {
+                        if (fastNdjson) {
+                            StringFieldNdjsonCodecs.register(configurer, new StringFieldMapping<>(
+                                    StringValue.class, "value", StringValue::new, StringValue::value));
+                        }
+                    })
+                    .build();
+
+            var latencies = Collections.synchronizedList(new ArrayList<Long>(requests));
+            var errors = new AtomicLong();
+            var begin = System.nanoTime();
+            Flux.range(0, requests)
+                    .flatMap(seed -> call(client, seed, flux)
+                            .elapsed()
+                            .doOnNext(elapsed -> latencies.add(elapsed.getT1()))
+                            .onErrorResume(error -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            }), concurrency)
+                    .blockLast();
+            var elapsed = Duration.ofNanos(System.nanoTime() - begin);
+
+            System.out.printf("%s, requests: %d, concurrency: %d, h2c: %s, fast ndjson: %s, errors: %d%n",
+                    flux ? "flux" : "mono", requests, concurrency, props.h2c(), fastNdjson, errors.get());
+            System.out.printf("RPS: %.1f%n", latencies.size() * 1000.0 / Math.max(elapsed.toMillis(), 1));
+            printLatencies(latencies);
+        } finally {
+            connectionProvider.dispose();
+            loopResources.dispose();
+        }
+    }
+
+    private static Mono<?> call(WebClient client, int seed, boolean flux) {
+        if (flux) {
+            return client.get().uri("/data/{seed}", seed)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve()
+                    .bodyToFlux(StringValue.class)
+                    .take(FLUX_ELEMENTS)
+                    .then(Mono.just(seed));
+        }
+        return client.get().uri("/data-mono/{seed}", seed)
+                .retrieve()
+                .bodyToMono(StringValue.class);
+    }
+
+    private static void printLatencies(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return;
+        }
+        var sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("latency ms: p50:%d, p90:%d, p99:%d, max:%d%n",
+                percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                sorted.get(sorted.size() - 1));
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        var idx = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(idx, 0));
+    }
+
+    // значения по умолчанию - из @DefaultValue HttpClientProperties
+    private static HttpClientProperties clientProperties() {
+        var source = ConfigurationPropertySources.from(
+                new PropertiesPropertySource("system", System.getProperties()));
+        return new Binder(source).bindOrCreate("http-client", HttpClientProperties.class);
+    }
+}
@@ -0,0 +1,8 @@
+dependencies {
+    implementation ("org.springframework.boot:spring-boot-starter-webflux")
+    implementation ("io.micrometer:micrometer-core")
+
+    testImplementation ("org.springframework.boot:spring-boot-starter-test")
+    testImplementation ("org.openjdk.jmh:jmh-core")
+    testAnnotationProcessor ("org.openjdk.jmh:jmh-generator-annprocess")
+}
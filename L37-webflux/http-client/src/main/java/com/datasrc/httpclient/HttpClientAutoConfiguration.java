@@ -0,0 +1,53 @@
+package com.datasrc.httpclient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Ставит общий пул соединений и таймауты в коннектор, через который Spring Boot
+ * собирает все WebClient.Builder.
+ */
+@AutoConfiguration(before = ClientHttpConnectorAutoConfiguration.class)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientAutoConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(HttpClientAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactorResourceFactory reactorResourceFactory(HttpClientProperties props) {
+        log.info("http client settings:{}", props);
+        var resourceFactory = new ReactorResourceFactory();
+        resourceFactory.setUseGlobalResources(false);
+        // через supplier ресурсы создает и освобождает при остановке сама фабрика
+        resourceFactory.setLoopResourcesSupplier(() -> ReactorHttpClients.loopResources(props));
+        resourceFactory.setConnectionProviderSupplier(() -> ReactorHttpClients.connectionProvider(props));
+        return resourceFactory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactorClientHttpConnector reactorClientHttpConnector(ReactorResourceFactory resourceFactory,
+                                                                 HttpClientProperties props) {
+        return new ReactorClientHttpConnector(resourceFactory,
+                httpClient -> ReactorHttpClients.customize(httpClient, props));
+    }
+
+    /**
+     * Чтобы клиент мог говорить h2c, сервер на другой стороне тоже должен его принимать.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "http-client", name = "h2c", havingValue = "true")
+    public NettyServerCustomizer h2cServerCustomizer() {
+        return server -> server.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+}
@@ -0,0 +1,31 @@
+package com.datasrc.httpclient;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Общие настройки исходящих HTTP-вызовов между сервисами L37-webflux.
+ *
+ * @param eventLoopThreads      потоков event loop у клиента
+ * @param maxConnections        максимум соединений в пуле на один адрес
+ * @param maxPendingAcquires    сколько запросов может ждать свободного соединения; остальные сразу получают ошибку
+ * @param pendingAcquireTimeout сколько запрос может ждать свободного соединения
+ * @param connectTimeout        таймаут установки TCP-соединения
+ * @param responseTimeout       максимальная пауза между чтениями ответа, а не время всего ответа,
+ *                              поэтому не обрывает длинные NDJSON-потоки
+ * @param maxIdleTime           через сколько закрывать простаивающее соединение
+ * @param h2c                   HTTP/2 без TLS: все вызовы к одному адресу мультиплексируются в одном соединении
+ * @param metrics               метрики пула и метрики запросов в разрезе маршрутов
+ */
+@ConfigurationProperties(prefix = "http-client")
+public record HttpClientProperties(@DefaultValue("4") int eventLoopThreads,
+                                   @DefaultValue("64") int maxConnections,
+                                   @DefaultValue("256") int maxPendingAcquires,
+                                   @DefaultValue("5s") Duration pendingAcquireTimeout,
+                                   @DefaultValue("2s") Duration connectTimeout,
+                                   @DefaultValue("30s") Duration responseTimeout,
+                                   @DefaultValue("30s") Duration maxIdleTime,
+                                   @DefaultValue("false") boolean h2c,
+                                   @DefaultValue("true") boolean metrics) {
+}
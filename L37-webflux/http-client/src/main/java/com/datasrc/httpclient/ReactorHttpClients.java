@@ -0,0 +1,51 @@
+package com.datasrc.httpclient;
+
+import io.netty.channel.ChannelOption;
+import java.util.regex.Pattern;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Сборка reactor-netty клиента по HttpClientProperties.
+ * Используется автоконфигурацией и отдельно стоящими утилитами вроде бенчмарка.
+ */
+public final class ReactorHttpClients {
+    private static final String POOL_NAME = "datasrc";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+");
+
+    private ReactorHttpClients() {
+    }
+
+    public static LoopResources loopResources(HttpClientProperties props) {
+        return LoopResources.create("client-thread", props.eventLoopThreads(), true);
+    }
+
+    public static ConnectionProvider connectionProvider(HttpClientProperties props) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(props.maxConnections())
+                .pendingAcquireMaxCount(props.maxPendingAcquires())
+                .pendingAcquireTimeout(props.pendingAcquireTimeout())
+                .maxIdleTime(props.maxIdleTime())
+                .metrics(props.metrics())
+                .build();
+    }
+
+    public static HttpClient customize(HttpClient httpClient, HttpClientProperties props) {
+        var customized = httpClient
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) props.connectTimeout().toMillis())
+                .responseTimeout(props.responseTimeout())
+                .protocol(props.h2c()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        return props.metrics() ? customized.metrics(true, ReactorHttpClients::routeOf) : customized;
+    }
+
+    /**
+     * /data/5 и /data/6 - один маршрут; без этого каждое значение seed порождало бы отдельную метрику.
+     */
+    static String routeOf(String uri) {
+        return ID_SEGMENT.matcher(uri).replaceAll("/{id}");
+    }
+}
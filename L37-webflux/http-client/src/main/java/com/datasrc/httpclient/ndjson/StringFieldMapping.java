@@ -0,0 +1,12 @@
+package com.datasrc.httpclient.ndjson;
+
+import java.util.function.Function;
+
+/**
+ * Описание простого типа, который в JSON выглядит как {"fieldName":"строка"}, например StringValue.
+ */
+public record StringFieldMapping<T>(Class<T> type,
+                                    String fieldName,
+                                    Function<String, T> factory,
+                                    Function<T, String> accessor) {
+}
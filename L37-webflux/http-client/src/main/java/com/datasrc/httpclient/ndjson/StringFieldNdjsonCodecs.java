@@ -0,0 +1,28 @@
+package com.datasrc.httpclient.ndjson;
+
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.codec.CodecConfigurer;
+
+/**
+ * Кодеки регистрируются как "типизированные": они идут раньше Jackson,
+ * но только для своего типа и только для application/x-ndjson.
+ */
+public final class StringFieldNdjsonCodecs {
+
+    private StringFieldNdjsonCodecs() {
+    }
+
+    public static <T> CodecCustomizer customizer(StringFieldMapping<T> mapping) {
+        return configurer -> register(configurer, mapping);
+    }
+
+    public static <T> void register(CodecConfigurer configurer, StringFieldMapping<T> mapping) {
+        var decoder = new StringFieldNdjsonDecoder<>(mapping);
+        configurer.customCodecs().register(new StringFieldNdjsonEncoder<>(mapping));
+        configurer.customCodecs().registerWithDefaultConfig(decoder, config -> {
+            if (config.maxInMemorySize() != null) {
+                decoder.setMaxInMemorySize(config.maxInMemorySize());
+            }
+        });
+    }
+}
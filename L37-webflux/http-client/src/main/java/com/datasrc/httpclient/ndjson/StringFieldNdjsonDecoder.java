@@ -0,0 +1,239 @@
+package com.datasrc.httpclient.ndjson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Разбирает NDJSON вида {"fieldName":"..."} сканированием байтов, без дерева токенов Jackson.
+ * Строки могут разрываться между буферами: хвост копируется в переиспользуемый массив.
+ * В одной строке допускается и JSON-массив таких объектов. Другие поля - ошибка:
+ * декодер предназначен только для простых типов из одного строкового поля.
+ */
+public class StringFieldNdjsonDecoder<T> implements Decoder<T> {
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+
+    private final StringFieldMapping<T> mapping;
+    private final byte[] fieldName;
+    private int maxInMemorySize = 256 * 1024;
+
+    public StringFieldNdjsonDecoder(StringFieldMapping<T> mapping) {
+        this.mapping = mapping;
+        this.fieldName = mapping.fieldName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void setMaxInMemorySize(int maxInMemorySize) {
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return mapping.type().equals(elementType.toClass())
+                && mimeType != null && MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mimeType);
+    }
+
+    @Override
+    public Flux<T> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                          @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return Flux.defer(() -> {
+                    var lines = new LineParser();
+                    return Flux.from(inputStream)
+                            .concatMapIterable(lines::feed)
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(lines.finish())));
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    @Override
+    public Mono<T> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return decode(inputStream, elementType, mimeType, hints).next();
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    /**
+     * Состояние разбора одного тела ответа.
+     */
+    private class LineParser {
+        private byte[] line = new byte[256];
+        private int length;
+        private int pos;
+
+        List<T> feed(DataBuffer buffer) {
+            try {
+                var result = new ArrayList<T>();
+                while (buffer.readableByteCount() > 0) {
+                    var newLine = buffer.indexOf(b -> b == '\n', buffer.readPosition());
+                    var chunk = newLine < 0 ? buffer.readableByteCount() : newLine - buffer.readPosition();
+                    ensureCapacity(length + chunk);
+                    buffer.read(line, length, chunk);
+                    length += chunk;
+                    if (newLine >= 0) {
+                        buffer.readPosition(newLine + 1);
+                        parseLine(result);
+                    }
+                }
+                return result;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<T> finish() {
+            var result = new ArrayList<T>();
+            parseLine(result);
+            return result;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > maxInMemorySize) {
+                throw new DataBufferLimitException("NDJSON line exceeds the limit: " + maxInMemorySize);
+            }
+            if (capacity > line.length) {
+                line = Arrays.copyOf(line, Math.min(Math.max(capacity, line.length * 2), maxInMemorySize));
+            }
+        }
+
+        private void parseLine(List<T> result) {
+            pos = 0;
+            while (pos < length) {
+                var b = line[pos];
+                if (b == '{') {
+                    result.add(parseObject());
+                } else if (b == '[' || b == ']' || b == ',' || isWhitespace(b)) {
+                    pos++;
+                } else {
+                    throw error("unexpected character");
+                }
+            }
+            length = 0;
+        }
+
+        private T parseObject() {
+            pos++;
+            skipWhitespace();
+            expect((byte) '"');
+            if (!matchFieldName()) {
+                throw error("expected the only field \"" + mapping.fieldName() + "\"");
+            }
+            skipWhitespace();
+            expect((byte) ':');
+            skipWhitespace();
+            String value;
+            if (pos < length && line[pos] == 'n') {
+                expectNull();
+                value = null;
+            } else {
+                expect((byte) '"');
+                value = parseString();
+            }
+            skipWhitespace();
+            expect((byte) '}');
+            return mapping.factory().apply(value);
+        }
+
+        private boolean matchFieldName() {
+            var end = pos + fieldName.length;
+            if (end >= length || line[end] != '"'
+                    || !Arrays.equals(line, pos, end, fieldName, 0, fieldName.length)) {
+                return false;
+            }
+            pos = end + 1;
+            return true;
+        }
+
+        private String parseString() {
+            var from = pos;
+            var escaped = false;
+            while (pos < length && line[pos] != '"') {
+                if (line[pos] == '\\') {
+                    escaped = true;
+                    pos++;
+                }
+                pos++;
+            }
+            if (pos >= length) {
+                throw error("unterminated string");
+            }
+            var raw = new String(line, from, pos - from, StandardCharsets.UTF_8);
+            pos++;
+            return escaped ? unescape(raw) : raw;
+        }
+
+        private String unescape(String raw) {
+            var sb = new StringBuilder(raw.length());
+            for (var idx = 0; idx < raw.length(); idx++) {
+                var ch = raw.charAt(idx);
+                if (ch != '\\') {
+                    sb.append(ch);
+                    continue;
+                }
+                var escape = raw.charAt(++idx);
+                switch (escape) {
+                    case '"', '\\', '/' -> sb.append(escape);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (idx + 4 >= raw.length()) {
+                            throw error("bad unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(raw, idx + 1, idx + 5, 16));
+                        idx += 4;
+                    }
+                    default -> throw error("bad escape \\" + escape);
+                }
+            }
+            return sb.toString();
+        }
+
+        private void expectNull() {
+            if (pos + 4 > length || line[pos + 1] != 'u' || line[pos + 2] != 'l' || line[pos + 3] != 'l') {
+                throw error("expected null");
+            }
+            pos += 4;
+        }
+
+        private void expect(byte expected) {
+            if (pos >= length || line[pos] != expected) {
+                throw error("expected '" + (char) expected + "'");
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && isWhitespace(line[pos])) {
+                pos++;
+            }
+        }
+
+        private boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+
+        private DecodingException error(String message) {
+            return new DecodingException(String.format("%s at %d in: %s", message, pos,
+                    new String(line, 0, Math.min(length, 200), StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.datasrc.httpclient.ndjson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * Пишет {"fieldName":"..."}\n сразу в буфер из фабрики сервера/клиента (у reactor-netty она пуловая),
+ * экранируя и кодируя строку в UTF-8 посимвольно - без промежуточных строк, byte[] и Jackson-генератора.
+ */
+public class StringFieldNdjsonEncoder<T> implements HttpMessageEncoder<T> {
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STRING_SUFFIX = "\"}\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_SUFFIX = "null}\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final StringFieldMapping<T> mapping;
+    private final byte[] prefix;
+
+    public StringFieldNdjsonEncoder(StringFieldMapping<T> mapping) {
+        this.mapping = mapping;
+        this.prefix = ("{\"" + mapping.fieldName() + "\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return mapping.type().equals(elementType.toClass())
+                && mimeType != null && MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends T> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, @Nullable MimeType mimeType,
+                                   @Nullable Map<String, Object> hints) {
+        return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+    }
+
+    @Override
+    public DataBuffer encodeValue(T value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        var text = mapping.accessor().apply(value);
+        // буфер при нехватке места растет сам, оценка нужна только чтобы обычно обойтись без роста
+        var buffer = bufferFactory.allocateBuffer(prefix.length + (text == null ? 0 : text.length()) + 8);
+        var release = true;
+        try {
+            buffer.write(prefix);
+            if (text == null) {
+                buffer.write(NULL_SUFFIX);
+            } else {
+                buffer.write((byte) '"');
+                writeEscaped(buffer, text);
+                buffer.write(STRING_SUFFIX);
+            }
+            release = false;
+            return buffer;
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    /**
+     * Без этого EncoderHttpMessageWriter не сбрасывал бы в сеть каждый элемент бесконечного потока.
+     */
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    private static void writeEscaped(DataBuffer buffer, String text) {
+        var length = text.length();
+        for (var idx = 0; idx < length; idx++) {
+            var ch = text.charAt(idx);
+            if (ch < 0x80) {
+                writeAscii(buffer, ch);
+            } else if (ch < 0x800) {
+                buffer.write((byte) (0xC0 | (ch >> 6)));
+                buffer.write((byte) (0x80 | (ch & 0x3F)));
+            } else if (Character.isHighSurrogate(ch) && idx + 1 < length
+                    && Character.isLowSurrogate(text.charAt(idx + 1))) {
+                var codePoint = Character.toCodePoint(ch, text.charAt(++idx));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(ch)) {
+                // непарный суррогат, как и String.getBytes(UTF_8)
+                buffer.write((byte) '?');
+            } else {
+                buffer.write((byte) (0xE0 | (ch >> 12)));
+                buffer.write((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (ch & 0x3F)));
+            }
+        }
+    }
+
+    private static void writeAscii(DataBuffer buffer, char ch) {
+        switch (ch) {
+            case '"', '\\' -> {
+                buffer.write((byte) '\\');
+                buffer.write((byte) ch);
+            }
+            case '\n' -> writeShortEscape(buffer, 'n');
+            case '\r' -> writeShortEscape(buffer, 'r');
+            case '\t' -> writeShortEscape(buffer, 't');
+            case '\b' -> writeShortEscape(buffer, 'b');
+            case '\f' -> writeShortEscape(buffer, 'f');
+            default -> {
+                if (ch < 0x20) {
+                    buffer.write((byte) '\\');
+                    buffer.write((byte) 'u');
+                    buffer.write((byte) '0');
+                    buffer.write((byte) '0');
+                    buffer.write(HEX[ch >> 4]);
+                    buffer.write(HEX[ch & 0xF]);
+                } else {
+                    buffer.write((byte) ch);
+                }
+            }
+        }
+    }
+
+    private static void writeShortEscape(DataBuffer buffer, char escape) {
+        buffer.write((byte) '\\');
+        buffer.write((byte) escape);
+    }
+}
@@ -0,0 +1,77 @@
+package com.datasrc.httpclient.ndjson;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+/*
+Сквозное сравнение через loopback: сервер WebFlux отдает поток StringValue в NDJSON,
+WebClient читает его через bodyToFlux. Обе стороны используют либо кодеки Jackson по умолчанию,
+либо StringFieldNdjson*. Печатаются элементы в секунду и время GC за прогон.
+Аргументы: [элементов в ответе] [прогонов]
+ */
+public class NdjsonEndToEndComparison {
+
+    public static void main(String[] args) {
+        var elements = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        var rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        for (var round = 0; round < rounds; round++) {
+            run("jackson", elements, configurer -> {
+            });
+            run("fast", elements, configurer -> StringFieldNdjsonCodecs.register(configurer, StringValue.MAPPING));
+        }
+    }
+
+    private static void run(String name, int elements, Consumer<CodecConfigurer> codecs) {
+        var route = RouterFunctions.route()
+                .GET("/data", request -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(Flux.range(0, elements).map(idx -> new StringValue("someDataStr:" + idx)), StringValue.class))
+                .build();
+        var httpHandler = RouterFunctions.toHttpHandler(route,
+                HandlerStrategies.builder().codecs(codecs::accept).build());
+        var server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        try {
+            var client = WebClient.builder()
+                    .baseUrl("http://localhost:" + server.port())
+                    .codecs(codecs::accept)
+                    .build();
+
+            var gcBefore = gcMillis();
+            var begin = System.nanoTime();
+            var received = client.get().uri("/data")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve()
+                    .bodyToFlux(StringValue.class)
+                    .count()
+                    .block();
+            var elapsedNanos = System.nanoTime() - begin;
+
+            System.out.printf("%-8s received: %d, %,.0f elements/s, gc: %d ms%n", name, received,
+                    elements * 1e9 / elapsedNanos, gcMillis() - gcBefore);
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
@@ -0,0 +1,128 @@
+package com.datasrc.httpclient.ndjson;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и разбор пачки StringValue в NDJSON: StringFieldNdjson* против кодеков Jackson,
+ * которые WebFlux использует по умолчанию. Буферы - из пулового аллокатора Netty, как в reactor-netty.
+ * Байты кучи на операцию показывает GCProfiler (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StringFieldNdjsonCodecBenchmark {
+    private static final ResolvableType TYPE = ResolvableType.forClass(StringValue.class);
+    private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Param({"100"})
+    public int batchSize;
+
+    @Param({"16", "256"})
+    public int valueLength;
+
+    private List<StringValue> values;
+    private List<byte[]> encoded;
+
+    private final StringFieldNdjsonEncoder<StringValue> fastEncoder = new StringFieldNdjsonEncoder<>(StringValue.MAPPING);
+    private final StringFieldNdjsonDecoder<StringValue> fastDecoder = new StringFieldNdjsonDecoder<>(StringValue.MAPPING);
+    private final Jackson2JsonEncoder jacksonEncoder = new Jackson2JsonEncoder();
+    private final Jackson2JsonDecoder jacksonDecoder = new Jackson2JsonDecoder();
+
+    public static void main(String[] args) throws RunnerException {
+        var opt = new OptionsBuilder()
+                .include(StringFieldNdjsonCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = new ArrayList<>(batchSize);
+        for (var idx = 0; idx < batchSize; idx++) {
+            values.add(new StringValue(("someDataStr:" + idx + "x".repeat(valueLength)).substring(0, valueLength)));
+        }
+        encoded = new ArrayList<>(batchSize);
+        fastEncoder.encode(Flux.fromIterable(values), BUFFER_FACTORY, TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .doOnNext(buffer -> {
+                    var bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    encoded.add(bytes);
+                })
+                .blockLast();
+    }
+
+    @Benchmark
+    public long encodeFast() {
+        return encode(fastEncoder);
+    }
+
+    @Benchmark
+    public long encodeJackson() {
+        return encode(jacksonEncoder);
+    }
+
+    @Benchmark
+    public long decodeFast() {
+        return decode(fastDecoder);
+    }
+
+    @Benchmark
+    public long decodeJackson() {
+        return decode(jacksonDecoder);
+    }
+
+    private long encode(Encoder<?> encoder) {
+        // как и в сервере, каждый буфер освобождается после записи в сеть
+        return encoder.encode(Flux.fromIterable(values), BUFFER_FACTORY, TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .map(buffer -> {
+                    var size = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) size;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    private long decode(Decoder<?> decoder) {
+        return decoder.decode(Flux.fromIterable(encoded).map(this::pooledCopy), TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .count()
+                .block();
+    }
+
+    private DataBuffer pooledCopy(byte[] bytes) {
+        var buffer = BUFFER_FACTORY.allocateBuffer(bytes.length);
+        buffer.write(bytes);
+        return buffer;
+    }
+}
@@ -0,0 +1,125 @@
+package com.datasrc.httpclient.ndjson;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringFieldNdjsonCodecTest {
+    private static final ResolvableType TYPE = ResolvableType.forClass(StringValue.class);
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+    private static final List<StringValue> VALUES = Arrays.asList(
+            new StringValue("someDataStr:1"),
+            new StringValue(""),
+            new StringValue(null),
+            new StringValue("quote\" backslash\\ slash/ tab\t newline\n control\u0001"),
+            new StringValue("кириллица"),
+            new StringValue("emoji 😀 and €"));
+
+    private final StringFieldNdjsonEncoder<StringValue> encoder = new StringFieldNdjsonEncoder<>(StringValue.MAPPING);
+    private final StringFieldNdjsonDecoder<StringValue> decoder = new StringFieldNdjsonDecoder<>(StringValue.MAPPING);
+
+    @Test
+    void roundTrip() {
+        assertThat(decode(encode(VALUES))).isEqualTo(VALUES);
+    }
+
+    @Test
+    void compatibleWithJackson() {
+        var jacksonDecoded = new Jackson2JsonDecoder()
+                .decode(Flux.just(BUFFER_FACTORY.wrap(encode(VALUES))), TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .cast(StringValue.class)
+                .collectList()
+                .block();
+        assertThat(jacksonDecoded).isEqualTo(VALUES);
+
+        var jacksonEncoded = DataBufferUtils.join(new Jackson2JsonEncoder()
+                        .encode(Flux.fromIterable(VALUES), BUFFER_FACTORY, TYPE, MediaType.APPLICATION_NDJSON, Map.of()))
+                .map(buffer -> {
+                    var bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+        assertThat(decode(jacksonEncoded)).isEqualTo(VALUES);
+    }
+
+    @Test
+    void linesSplitAcrossBuffers() {
+        var bytes = encode(VALUES);
+        for (var chunkSize = 1; chunkSize <= bytes.length; chunkSize++) {
+            assertThat(decode(split(bytes, chunkSize))).as("chunk size %d", chunkSize).isEqualTo(VALUES);
+        }
+    }
+
+    @Test
+    void arrayOnOneLineAndMissingTrailingNewLine() {
+        var bytes = "[ {\"value\":\"str:1\"}, {\"value\" : \"str:2\"} ]\r\n{\"value\":\"str:3\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(decode(bytes))
+                .containsExactly(new StringValue("str:1"), new StringValue("str:2"), new StringValue("str:3"));
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        var bytes = "{\"other\":\"str:1\"}\n".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> decode(bytes)).isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void onlyOwnTypeAndNdjson() {
+        assertThat(encoder.canEncode(TYPE, MediaType.APPLICATION_NDJSON)).isTrue();
+        assertThat(encoder.canEncode(TYPE, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(encoder.canEncode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_NDJSON)).isFalse();
+        assertThat(decoder.canDecode(TYPE, MediaType.APPLICATION_NDJSON)).isTrue();
+        assertThat(decoder.canDecode(TYPE, null)).isFalse();
+    }
+
+    private byte[] encode(List<StringValue> values) {
+        var out = new StringBuilder();
+        encoder.encode(Flux.fromIterable(values), BUFFER_FACTORY, TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .doOnNext(buffer -> {
+                    out.append(buffer.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<StringValue> decode(byte[] bytes) {
+        return decode(List.of(BUFFER_FACTORY.wrap(bytes)));
+    }
+
+    private List<StringValue> decode(List<DataBuffer> buffers) {
+        return decoder.decode(Flux.fromIterable(buffers), TYPE, MediaType.APPLICATION_NDJSON, Map.of())
+                .collectList()
+                .block();
+    }
+
+    private static List<DataBuffer> split(byte[] bytes, int chunkSize) {
+        var buffers = new ArrayList<DataBuffer>();
+        for (var from = 0; from < bytes.length; from += chunkSize) {
+            buffers.add(BUFFER_FACTORY.wrap(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + chunkSize))));
+        }
+        return buffers;
+    }
+}
@@ -0,0 +1,6 @@
+package com.datasrc.httpclient.ndjson;
+
+public record StringValue(String value) {
+    static final StringFieldMapping<StringValue> MAPPING =
+            new StringFieldMapping<>(StringValue.class, "value", StringValue::new, StringValue::value);
+}
@@ -5,6 +5,7 @@ import com.datasrc.processor.DataProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,16 +19,20 @@ public class ProcessorDataController {
     private static final Logger log = LoggerFactory.getLogger(ProcessorDataController.class);
 
     private final DataProcessor<Flux<StringValue>> dataProcessorStringReactorFlux;
+    private final DataProcessor<Flux<StringValue>> dataProcessorStringReactorBatchFlux;
     private final DataProcessor<Mono<StringValue>> dataProcessorStringReactorMono;
     private final WebClient client;
 
     public ProcessorDataController(WebClient.Builder builder,
+                                   @Value("${source.url}") String sourceUrl,
                                    @Qualifier("dataProcessorFlux") DataProcessor<Flux<StringValue>> dataProcessorFlux,
+                                   @Qualifier("dataProcessorBatchFlux") DataProcessor<Flux<StringValue>> dataProcessorBatchFlux,
                                    @Qualifier("dataProcessorMono") DataProcessor<Mono<StringValue>> dataProcessorMono) {
         this.dataProcessorStringReactorFlux = dataProcessorFlux;
+        this.dataProcessorStringReactorBatchFlux = dataProcessorBatchFlux;
         this.dataProcessorStringReactorMono = dataProcessorMono;
         client = builder
-                .baseUrl("http://localhost:8080")
+                .baseUrl(sourceUrl)
                 .build();
     }
 
@@ -43,6 +48,18 @@ public class ProcessorDataController {
         return dataProcessorStringReactorFlux.process(srcRequest);
     }
 
+    @GetMapping(value = "/data-batch/{seed}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StringValue> dataBatch(@PathVariable("seed") long seed) {
+        log.info("request for batch data, seed:{}", seed);
+
+        var srcRequest = client.get().uri(String.format("/data/%d", seed))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(StringValue.class);
+
+        return dataProcessorStringReactorBatchFlux.process(srcRequest);
+    }
+
     @GetMapping(value = "/data-mono/{seed}", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<StringValue> dataMono(@PathVariable("seed") long seed) {
         log.info("request for string data-mono, seed:{}", seed);
@@ -1,12 +1,17 @@
 package com.datasrc.config;
 
+import com.datasrc.httpclient.ndjson.StringFieldMapping;
+import com.datasrc.httpclient.ndjson.StringFieldNdjsonCodecs;
+import com.datasrc.StringValue;
 import io.netty.channel.nio.NioEventLoopGroup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
 import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.http.client.reactive.ReactorResourceFactory;
 
 
 import java.util.concurrent.ThreadFactory;
@@ -14,14 +19,13 @@ import java.util.concurrent.atomic.AtomicLong;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.annotation.NonNull;
-import reactor.util.annotation.Nullable;
 
 @Configuration
 public class ApplConfig {
     private static final int THREAD_POOL_SIZE = 2;
 
     @Bean
-    public ReactiveWebServerFactory reactiveWebServerFactory() {
+    public ReactiveWebServerFactory reactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
         var eventLoopGroup = new NioEventLoopGroup(THREAD_POOL_SIZE,
                 new ThreadFactory() {
                     private final AtomicLong threadIdGenerator = new AtomicLong(0);
@@ -33,36 +37,20 @@ public class ApplConfig {
 
         var factory = new NettyReactiveWebServerFactory();
         factory.addServerCustomizers(builder -> builder.runOn(eventLoopGroup));
+        serverCustomizers.orderedStream().forEach(factory::addServerCustomizers);
 
         return factory;
     }
 
     @Bean
-    public ReactorResourceFactory reactorResourceFactory() {
-        var eventLoopGroup = new NioEventLoopGroup(THREAD_POOL_SIZE,
-                new ThreadFactory() {
-                    private final AtomicLong threadIdGenerator = new AtomicLong(0);
-                    @Override
-                    public Thread newThread(@Nullable Runnable task) {
-                        var thread = new Thread(task);
-                        thread.setName("client-thread-" + threadIdGenerator.incrementAndGet());
-                        return thread;
-                    }
-                });
-
-        var resourceFactory= new ReactorResourceFactory();
-        resourceFactory.setLoopResources(b -> eventLoopGroup);
-        resourceFactory.setUseGlobalResources(false);
-        return resourceFactory;
-    }
-
-    @Bean
-    public ReactorClientHttpConnector reactorClientHttpConnector(ReactorResourceFactory resourceFactory) {
-        return new ReactorClientHttpConnector(resourceFactory, mapper -> mapper);
+    public Scheduler timer() {
+        return Schedulers.newParallel("processor-thread", 2);
     }
 
     @Bean
-    public Scheduler timer() {
-        return Schedulers.newParallel("processor-thread", 2);
+    @ConditionalOnProperty(name = "ndjson.fast-codec", havingValue = "true", matchIfMissing = true)
+    public CodecCustomizer stringValueNdjsonCodec() {
+        return StringFieldNdjsonCodecs.customizer(
+                new StringFieldMapping<>(StringValue.class, "value", StringValue::new, StringValue::value));
     }
 }
@@ -0,0 +1,82 @@
+package com.datasrc.processor;
+
+import com.datasrc.StringValue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Пакетный вариант DataProcessorStringReactorFlux: элементы собираются в пачки по batchSize,
+ * но не дольше maxLatency. Искусственная задержка обработки платится один раз на пачку.
+ * Пачки обрабатываются параллельно на parallelism потоках, а flatMapSequential
+ * возвращает их в исходном порядке.
+ */
+@Service("dataProcessorBatchFlux")
+public class DataProcessorStringReactorBatchFlux implements DataProcessor<Flux<StringValue>>, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(DataProcessorStringReactorBatchFlux.class);
+    static final Duration PROCESSING_DELAY = Duration.ofSeconds(5);
+
+    private final Scheduler timer;
+    private final Scheduler rails;
+    private final int batchSize;
+    private final Duration maxLatency;
+    private final int parallelism;
+
+    @Autowired
+    public DataProcessorStringReactorBatchFlux(@Qualifier("timer") Scheduler timer,
+                                               @Value("${processor.batch.size}") int batchSize,
+                                               @Value("${processor.batch.max-latency-ms}") long maxLatencyMs,
+                                               @Value("${processor.batch.parallelism}") int parallelism) {
+        this(timer, Schedulers.newParallel("batch-thread", parallelism), batchSize,
+                Duration.ofMillis(maxLatencyMs), parallelism);
+    }
+
+    public DataProcessorStringReactorBatchFlux(Scheduler timer, Scheduler rails,
+                                               int batchSize, Duration maxLatency, int parallelism) {
+        this.timer = timer;
+        this.rails = rails;
+        this.batchSize = batchSize;
+        this.maxLatency = maxLatency;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Flux<StringValue> process(Flux<StringValue> dataflow) {
+        log.info("processor, batchSize:{}, maxLatency:{}", batchSize, maxLatency);
+        var dataSeq = dataflow
+                .bufferTimeout(batchSize, maxLatency, timer)
+                .flatMapSequential(this::processBatch, parallelism)
+                .flatMapIterable(batch -> batch);
+
+        log.info("processor method finished");
+        return dataSeq;
+    }
+
+    private Mono<List<StringValue>> processBatch(List<StringValue> batch) {
+        return Mono.fromCallable(() -> {
+                    List<StringValue> result = new ArrayList<>(batch.size());
+                    for (var val : batch) {
+                        result.add(new StringValue(val.value().toUpperCase()));
+                    }
+                    return result;
+                })
+                .subscribeOn(rails)
+                .delayElement(PROCESSING_DELAY, timer)
+                .doOnNext(result -> log.info("out batch, size:{}", result.size()));
+    }
+
+    @Override
+    public void close() {
+        rails.dispose();
+    }
+}
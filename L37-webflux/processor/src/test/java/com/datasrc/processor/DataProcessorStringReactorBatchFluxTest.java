@@ -0,0 +1,107 @@
+package com.datasrc.processor;
+
+import com.datasrc.StringValue;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Сравнение поэлементной и пакетной обработки в виртуальном времени.
+Источник отдает все элементы сразу, поэтому время появления элемента на выходе - его задержка,
+а время последнего элемента определяет пропускную способность.
+ */
+class DataProcessorStringReactorBatchFluxTest {
+    private static final int ELEMENTS = 100;
+    private static final int BATCH_SIZE = 25;
+    private static final int PARALLELISM = 4;
+    private static final Duration MAX_LATENCY = Duration.ofSeconds(1);
+
+    @Test
+    void batchModeKeepsOrderAndAmortizesProcessingDelay() {
+        var elementAtATime = measure(DataProcessorStringReactorFlux::new);
+        var batched = measure(timer -> new DataProcessorStringReactorBatchFlux(timer, Schedulers.immediate(),
+                BATCH_SIZE, MAX_LATENCY, PARALLELISM));
+
+        System.out.printf("element-at-a-time: %s%nbatched:           %s%n", elementAtATime, batched);
+
+        assertThat(batched.values()).isEqualTo(expectedValues()).isEqualTo(elementAtATime.values());
+        assertThat(elementAtATime.lastMillis()).isEqualTo(ELEMENTS * Duration.ofSeconds(5).toMillis());
+        // ELEMENTS / BATCH_SIZE пачек помещаются в PARALLELISM потоков - одна задержка на всех
+        assertThat(batched.lastMillis()).isEqualTo(DataProcessorStringReactorBatchFlux.PROCESSING_DELAY.toMillis());
+        assertThat(batched.throughputPerSecond()).isGreaterThan(10 * elementAtATime.throughputPerSecond());
+    }
+
+    @Test
+    void incompleteBatchIsFlushedAfterMaxLatency() {
+        var timer = VirtualTimeScheduler.create();
+        var processor = new DataProcessorStringReactorBatchFlux(timer, Schedulers.immediate(),
+                BATCH_SIZE, MAX_LATENCY, PARALLELISM);
+        var source = Flux.just(new StringValue("str:1")).concatWith(Flux.never());
+
+        StepVerifier.withVirtualTime(() -> processor.process(source), () -> timer, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNoEvent(MAX_LATENCY.plus(DataProcessorStringReactorBatchFlux.PROCESSING_DELAY).minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(new StringValue("STR:1"))
+                .thenCancel()
+                .verify();
+    }
+
+    private static Measurement measure(Function<VirtualTimeScheduler, DataProcessor<Flux<StringValue>>> processorFactory) {
+        var timer = VirtualTimeScheduler.create();
+        var processor = processorFactory.apply(timer);
+        var values = new ArrayList<String>();
+        var emittedAtMillis = new ArrayList<Long>();
+
+        StepVerifier.withVirtualTime(() -> processor.process(source())
+                                .doOnNext(val -> {
+                                    values.add(val.value());
+                                    emittedAtMillis.add(timer.now(TimeUnit.MILLISECONDS));
+                                }),
+                        () -> timer, Long.MAX_VALUE)
+                .thenAwait(Duration.ofHours(1))
+                .expectNextCount(ELEMENTS)
+                .verifyComplete();
+
+        return new Measurement(values, emittedAtMillis);
+    }
+
+    private static Flux<StringValue> source() {
+        return Flux.range(1, ELEMENTS).map(idx -> new StringValue("str:" + idx));
+    }
+
+    private static List<String> expectedValues() {
+        return IntStream.rangeClosed(1, ELEMENTS).mapToObj(idx -> "STR:" + idx).toList();
+    }
+
+    private record Measurement(List<String> values, List<Long> emittedAtMillis) {
+        long lastMillis() {
+            return emittedAtMillis.get(emittedAtMillis.size() - 1);
+        }
+
+        long medianMillis() {
+            return emittedAtMillis.get(emittedAtMillis.size() / 2);
+        }
+
+        double throughputPerSecond() {
+            return values.size() * 1000.0 / lastMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f values/s, median latency: %d ms, max latency: %d ms",
+                    throughputPerSecond(), medianMillis(), lastMillis());
+        }
+    }
+}
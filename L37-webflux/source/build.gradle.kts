@@ -1,5 +1,7 @@
 dependencies {
     implementation ("org.springframework.boot:spring-boot-starter-webflux")
+    implementation(project(":L37-webflux:http-client"))
+    implementation ("org.springframework.boot:spring-boot-starter-actuator")
 
     testImplementation ("org.springframework.boot:spring-boot-starter-test")
     testImplementation ("io.projectreactor:reactor-test")
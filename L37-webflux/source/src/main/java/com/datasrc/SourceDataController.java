@@ -1,11 +1,9 @@
 package com.datasrc;
 
 
+import com.datasrc.blocking.BlockingBridge;
 import com.datasrc.producer.DataProducer;
 import com.datasrc.producer.StringValue;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -23,12 +21,14 @@ public class SourceDataController {
     private final DataProducer<Flux<StringValue>> dataProducerFlux;
     private final DataProducer<StringValue> dataProducerStringBlocked;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final BlockingBridge blockingBridge;
 
     public SourceDataController(@Qualifier("dataProducerFlux") DataProducer<Flux<StringValue>> dataProducerFlux,
-                                @Qualifier("dataProducerStringBlocked") DataProducer<StringValue> dataProducerStringBlocked) {
+                                @Qualifier("dataProducerStringBlocked") DataProducer<StringValue> dataProducerStringBlocked,
+                                BlockingBridge blockingBridge) {
         this.dataProducerFlux = dataProducerFlux;
         this.dataProducerStringBlocked = dataProducerStringBlocked;
+        this.blockingBridge = blockingBridge;
     }
 
     @GetMapping(value = "/data/{seed}", produces = MediaType.APPLICATION_NDJSON_VALUE)
@@ -45,8 +45,7 @@ public class SourceDataController {
         log.info("request for string data-mono, seed:{}", seed);
         log.info("Method request for string data done");
 
-        var future = CompletableFuture
-                .supplyAsync(() -> dataProducerStringBlocked.produce(seed), executor);
-        return Mono.fromFuture(future);
+        // при переполнении моста клиент сразу получает 503
+        return blockingBridge.call(() -> dataProducerStringBlocked.produce(seed));
     }
 }
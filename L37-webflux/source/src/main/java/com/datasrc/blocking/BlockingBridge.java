@@ -0,0 +1,111 @@
+package com.datasrc.blocking;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.NonNull;
+
+/**
+ * Мост от реактивного кода к блокирующим вызовам.
+ * Задачи выполняются на отдельном ограниченном планировщике, а не на event loop.
+ * Одновременно принимается не больше maxConcurrency + queueCapacity задач, остальные сразу
+ * получают BlockingBridgeSaturatedException вместо бесконечного ожидания в очереди.
+ */
+public class BlockingBridge implements MeterBinder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BlockingBridge.class);
+
+    private final Scheduler scheduler;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public BlockingBridge(Scheduler scheduler, int maxConcurrency, int queueCapacity) {
+        this.scheduler = scheduler;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Очередь boundedElastic ограничена по каждому потоку отдельно, поэтому общий лимит
+     * держит сам мост, а планировщику оставлена неограниченная очередь.
+     */
+    public static BlockingBridge boundedElastic(String name, int maxConcurrency, int queueCapacity) {
+        var scheduler = Schedulers.newBoundedElastic(maxConcurrency, Integer.MAX_VALUE, name);
+        return new BlockingBridge(scheduler, maxConcurrency, queueCapacity);
+    }
+
+    public <T> Mono<T> call(Supplier<T> blockingTask) {
+        return Mono.defer(() -> {
+            if (accepted.incrementAndGet() > maxConcurrency + queueCapacity) {
+                accepted.decrementAndGet();
+                rejected.increment();
+                log.debug("blocking bridge is saturated, active:{}, queued:{}", active(), queued());
+                return Mono.error(new BlockingBridgeSaturatedException(maxConcurrency, queueCapacity));
+            }
+            // отмена не прерывает уже запущенную задачу, поэтому слот освобождает тот, кто его реально занимал:
+            // сама задача, а если она так и не запустилась - doFinally
+            var started = new AtomicBoolean();
+            return Mono.fromSupplier(() -> {
+                        if (!started.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        active.incrementAndGet();
+                        try {
+                            return blockingTask.get();
+                        } finally {
+                            active.decrementAndGet();
+                            accepted.decrementAndGet();
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> {
+                        if (started.compareAndSet(false, true)) {
+                            accepted.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public int queued() {
+        return Math.max(accepted.get() - active.get(), 0);
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("blocking.bridge.active", this, BlockingBridge::active)
+                .description("blocking tasks running now")
+                .register(registry);
+        Gauge.builder("blocking.bridge.queued", this, BlockingBridge::queued)
+                .description("blocking tasks waiting for a thread")
+                .register(registry);
+        FunctionCounter.builder("blocking.bridge.rejected", this, BlockingBridge::rejected)
+                .description("tasks rejected because the bridge was saturated")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,13 @@
+package com.datasrc.blocking;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BlockingBridgeSaturatedException extends RuntimeException {
+
+    public BlockingBridgeSaturatedException(int maxConcurrency, int queueCapacity) {
+        super(String.format("blocking bridge is saturated, maxConcurrency:%d, queueCapacity:%d",
+                maxConcurrency, queueCapacity));
+    }
+}
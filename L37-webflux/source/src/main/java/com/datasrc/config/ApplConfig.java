@@ -1,6 +1,15 @@
 package com.datasrc.config;
 
+import com.datasrc.blocking.BlockingBridge;
+import com.datasrc.httpclient.ndjson.StringFieldMapping;
+import com.datasrc.httpclient.ndjson.StringFieldNdjsonCodecs;
+import com.datasrc.producer.StringValue;
 import io.netty.channel.nio.NioEventLoopGroup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
 import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
@@ -18,7 +27,7 @@ public class ApplConfig {
     private static final int THREAD_POOL_SIZE = 2;
 
     @Bean
-    public ReactiveWebServerFactory reactiveWebServerFactory() {
+    public ReactiveWebServerFactory reactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
         var eventLoopGroup = new NioEventLoopGroup(THREAD_POOL_SIZE,
                 new ThreadFactory() {
                     private final AtomicLong threadIdGenerator = new AtomicLong(0);
@@ -30,6 +39,7 @@ public class ApplConfig {
 
         var factory = new NettyReactiveWebServerFactory();
         factory.addServerCustomizers(builder -> builder.runOn(eventLoopGroup));
+        serverCustomizers.orderedStream().forEach(factory::addServerCustomizers);
 
         return factory;
     }
@@ -38,4 +48,17 @@ public class ApplConfig {
     public Scheduler timer() {
         return Schedulers.newParallel("processor-thread", 2);
     }
+
+    @Bean
+    public BlockingBridge blockingBridge(@Value("${blocking-bridge.max-concurrency}") int maxConcurrency,
+                                         @Value("${blocking-bridge.queue-capacity}") int queueCapacity) {
+        return BlockingBridge.boundedElastic("blocking-thread", maxConcurrency, queueCapacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ndjson.fast-codec", havingValue = "true", matchIfMissing = true)
+    public CodecCustomizer stringValueNdjsonCodec() {
+        return StringFieldNdjsonCodecs.customizer(
+                new StringFieldMapping<>(StringValue.class, "value", StringValue::new, StringValue::value));
+    }
 }
@@ -0,0 +1,136 @@
+package com.datasrc;
+
+import com.datasrc.blocking.BlockingBridge;
+import com.datasrc.producer.DataProducer;
+import com.datasrc.producer.StringValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/*
+Нагрузка на /data-mono при росте числа одновременных запросов.
+Мост принимает MAX_CONCURRENCY + QUEUE_CAPACITY задач, остальным сразу отвечает 503,
+поэтому время ответа принятых запросов не растет вместе с конкурентностью.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "blocking-bridge.max-concurrency=" + SourceDataMonoLoadTest.MAX_CONCURRENCY,
+                "blocking-bridge.queue-capacity=" + SourceDataMonoLoadTest.QUEUE_CAPACITY
+        })
+class SourceDataMonoLoadTest {
+    static final int MAX_CONCURRENCY = 4;
+    static final int QUEUE_CAPACITY = 4;
+    private static final long TASK_MILLIS = 1000;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BlockingBridge blockingBridge;
+
+    @MockBean(name = "dataProducerStringBlocked")
+    private DataProducer<StringValue> dataProducerStringBlocked;
+
+    @BeforeEach
+    void setUp() {
+        when(dataProducerStringBlocked.produce(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(TASK_MILLIS);
+            return new StringValue("someDataStr:" + invocation.getArgument(0));
+        });
+        // прогрев: первый запрос к поднятому контексту заметно медленнее остальных
+        request(0);
+    }
+
+    @Test
+    void rejectsRequestsAboveCapacity() throws Exception {
+        var concurrency = 3 * (MAX_CONCURRENCY + QUEUE_CAPACITY);
+        var rejectedBefore = blockingBridge.rejected();
+
+        var results = fire(concurrency);
+
+        var accepted = results.stream().filter(result -> result.status() == HttpStatus.OK).count();
+        var rejected = results.stream().filter(result -> result.status() == HttpStatus.SERVICE_UNAVAILABLE).count();
+        assertThat(accepted).isEqualTo(MAX_CONCURRENCY + QUEUE_CAPACITY);
+        assertThat(rejected).isEqualTo(concurrency - accepted);
+        assertThat(blockingBridge.rejected() - rejectedBefore).isEqualTo(rejected);
+    }
+
+    @Test
+    void tailLatencyStaysFlatAsConcurrencyRises() throws Exception {
+        // худший принятый запрос ждет в очереди одну "волну" задач и выполняется сам
+        var waves = (MAX_CONCURRENCY + QUEUE_CAPACITY + MAX_CONCURRENCY - 1) / MAX_CONCURRENCY;
+        var latencyLimit = Duration.ofMillis(waves * TASK_MILLIS).plusSeconds(1);
+
+        for (var concurrency : List.of(MAX_CONCURRENCY, 2 * MAX_CONCURRENCY, 8 * MAX_CONCURRENCY, 16 * MAX_CONCURRENCY)) {
+            var results = fire(concurrency);
+
+            var acceptedLatencies = results.stream()
+                    .filter(result -> result.status() == HttpStatus.OK)
+                    .map(Result::latency)
+                    .sorted()
+                    .toList();
+            var maxRejectedLatency = results.stream()
+                    .filter(result -> result.status() == HttpStatus.SERVICE_UNAVAILABLE)
+                    .map(Result::latency)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+            var maxAccepted = acceptedLatencies.get(acceptedLatencies.size() - 1);
+            System.out.printf("concurrency:%d, accepted:%d, max accepted latency:%d ms, max rejected latency:%d ms%n",
+                    concurrency, acceptedLatencies.size(), maxAccepted.toMillis(), maxRejectedLatency.toMillis());
+
+            assertThat(maxAccepted).isLessThan(latencyLimit);
+            assertThat(maxRejectedLatency).isLessThan(Duration.ofMillis(TASK_MILLIS));
+        }
+    }
+
+    private List<Result> fire(int concurrency) throws Exception {
+        var executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            var tasks = new ArrayList<Callable<Result>>();
+            for (var idx = 0; idx < concurrency; idx++) {
+                var seed = idx;
+                tasks.add(() -> request(seed));
+            }
+            var results = new ArrayList<Result>();
+            for (Future<Result> future : executor.invokeAll(tasks)) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return Collections.unmodifiableList(results);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Result request(long seed) {
+        var begin = System.nanoTime();
+        var status = webTestClient
+                .get().uri(String.format("/data-mono/%s", seed))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getStatus();
+        return new Result(HttpStatus.valueOf(status.value()), Duration.ofNanos(System.nanoTime() - begin));
+    }
+
+    private record Result(HttpStatus status, Duration latency) {
+    }
+}
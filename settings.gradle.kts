@@ -78,6 +78,7 @@ include ("L36-netty")
 include ("L37-webflux:source")
 include ("L37-webflux:processor")
 include ("L37-webflux:client")
+include ("L37-webflux:http-client")
 include ("L37-webflux-chat:client-service")
 include ("L37-webflux-chat:datastore-service")
 